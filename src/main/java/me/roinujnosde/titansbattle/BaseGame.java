@@ -11,15 +11,18 @@ import me.roinujnosde.titansbattle.events.PlayerJoinGameEvent;
 import me.roinujnosde.titansbattle.exceptions.CommandNotSupportedException;
 import me.roinujnosde.titansbattle.hooks.papi.PlaceholderHook;
 import me.roinujnosde.titansbattle.hooks.viaversion.ViaVersionHook;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.managers.CommandManager;
 import me.roinujnosde.titansbattle.managers.GameManager;
 import me.roinujnosde.titansbattle.managers.GroupManager;
 import me.roinujnosde.titansbattle.npc.NpcProvider;
 import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.Kit;
+import me.roinujnosde.titansbattle.types.Participants;
 import me.roinujnosde.titansbattle.types.Warrior;
-import me.roinujnosde.titansbattle.utils.MessageUtils;
 import me.roinujnosde.titansbattle.utils.SoundUtils;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -44,7 +47,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -73,11 +75,10 @@ public abstract class BaseGame {
     protected final GroupManager groupManager;
     protected final GameManager gameManager;
 
-    protected final List<Warrior> participants = new ArrayList<>();
-    protected final Map<Warrior, Group> groups = new HashMap<>();
+    protected final Participants participants = new Participants(this::updateRoute);
     protected final HashMap<Warrior, Integer> killsCount = new HashMap<>();
-    protected final Set<Warrior> casualties = new HashSet<>();
-    protected final Set<Warrior> casualtiesWatching = new HashSet<>();
+    private final Audience participantsAudience = (ForwardingAudience) () -> getPlayerParticipantsStream().toList();
+    private final Map<Group, Audience> groupAudiences = new HashMap<>();
     private final List<BukkitTask> tasks = new ArrayList<>();
     protected BaseGameConfiguration config;
     protected boolean lobby;
@@ -128,10 +129,11 @@ public abstract class BaseGame {
         if (getConfig().isWorldBorder()) {
             getConfig().getBorderCenter().getWorld().getWorldBorder().reset();
         }
-        Bukkit.getScheduler().runTask(plugin, () -> plugin.getDatabaseManager().saveAll());
+        plugin.getDatabaseManager().requestSave();
         if (!cancelled) {
             processWinners();
         }
+        plugin.getGameRouter().removeAll(this);
     }
 
     /**
@@ -142,10 +144,11 @@ public abstract class BaseGame {
             return;
         }
 
-        for (final Warrior participant : participants) {
+        for (final Warrior participant : getParticipants()) {
             final UUID playerId = participant.getUniqueId();
             if (plugin.getNpcProvider().isProxyAlive(playerId)) {
-                plugin.debug("Cleaning up NPC proxy for " + participant.getName() + " (reason: " + reason + ")");
+                plugin.getDebugLogger().debug(Category.NPC, "Cleaning up NPC proxy for {} (reason: {})",
+                        participant.getName(), reason);
                 plugin.getNpcProvider().despawnProxy(playerId, reason);
             }
         }
@@ -162,20 +165,22 @@ public abstract class BaseGame {
 
     public void onJoin(@NotNull final Warrior warrior) {
         if (!canJoin(warrior)) {
-            plugin.debug(String.format("Warrior %s can't join", warrior.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "Warrior {} can't join", warrior.getName());
             return;
         }
 
         final Player player = warrior.toOnlinePlayer();
         if (player == null) {
-            plugin.debug(String.format("onJoin() -> player %s %s == null", warrior.getName(), warrior.getUniqueId()));
+            plugin.getDebugLogger().debug(Category.GAME, "onJoin() -> player {} {} == null",
+                    warrior.getName(), warrior.getUniqueId());
             return;
         }
 
         final int playtimeInSeconds = player.getStatistic(Statistic.PLAY_ONE_MINUTE) / 20;
         final int minimumPlaytimeInSeconds = getConfig().getMinimumPlaytimeInSeconds();
         if (playtimeInSeconds < minimumPlaytimeInSeconds && !player.hasPermission("titansbattle.playtime-bypass")) {
-            plugin.debug(String.format("Player %s has not enough playtime: %d < %d", player.getName(), playtimeInSeconds, minimumPlaytimeInSeconds));
+            plugin.getDebugLogger().debug(Category.GAME, "Player {} has not enough playtime: {} < {}",
+                    player.getName(), playtimeInSeconds, minimumPlaytimeInSeconds);
             final StringBuilder formattedTime = getFormattedTime(minimumPlaytimeInSeconds, playtimeInSeconds);
             player.sendMessage(getLang("not.enough.playtime", formattedTime.toString()));
             return;
@@ -184,7 +189,8 @@ public abstract class BaseGame {
         final ViaVersionHook vvh = plugin.getViaVersionHook();
         if (vvh != null && vvh.isPlayerVersionBlocked(player, getConfig())) {
             final String versionInfo = vvh.getPlayerVersion(player);
-            plugin.debug(String.format("Player %s is using a blocked version: %s", player.getName(), versionInfo));
+            plugin.getDebugLogger().debug(Category.GAME, "Player {} is using a blocked version: {}",
+                    player.getName(), versionInfo);
             player.sendMessage(getLang("blocked.version"));
             return;
         }
@@ -196,8 +202,7 @@ public abstract class BaseGame {
         }
 
         SoundUtils.playSound(JOIN_GAME, plugin.getConfig(), player);
-        participants.add(warrior);
-        groups.put(warrior, warrior.getGroup());
+        participants.add(warrior, warrior.getGroup());
         setKit(warrior);
         healAndClearEffects(warrior);
         broadcastKey("player_joined", warrior.getName());
@@ -210,13 +215,14 @@ public abstract class BaseGame {
 
     public void onChallengeJoin(@NotNull final Warrior warrior) {
         if (!canJoin(warrior)) {
-            plugin.debug(String.format("Warrior %s can't join", warrior.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "Warrior {} can't join", warrior.getName());
             return;
         }
 
         final Player player = warrior.toOnlinePlayer();
         if (player == null) {
-            plugin.debug(String.format("onChallengeJoin() -> player %s %s == null", warrior.getName(), warrior.getUniqueId()));
+            plugin.getDebugLogger().debug(Category.GAME, "onChallengeJoin() -> player {} {} == null",
+                    warrior.getName(), warrior.getUniqueId());
             return;
         }
 
@@ -227,8 +233,7 @@ public abstract class BaseGame {
         }
 
         SoundUtils.playSound(JOIN_GAME, plugin.getConfig(), player);
-        participants.add(warrior);
-        groups.put(warrior, warrior.getGroup());
+        participants.add(warrior, warrior.getGroup());
         setKit(warrior);
         broadcastKey("challenge.player_joined", warrior.getName());
         player.sendMessage(getLang("objective"));
@@ -238,14 +243,14 @@ public abstract class BaseGame {
     }
 
     public void onDeath(@NotNull final Warrior victim, @Nullable final Warrior killer) {
-        plugin.debug(String.format("onDeath() -> victim %s, killer %s", victim.getName(), killer));
+        plugin.getDebugLogger().debug(Category.COMBAT, "onDeath() -> victim {}, killer {}", victim.getName(), killer);
         if (!isParticipant(victim)) {
             return;
         }
         if (!isLobby()) {
             final ParticipantDeathEvent event = new ParticipantDeathEvent(victim, killer);
             Bukkit.getPluginManager().callEvent(event);
-            casualties.add(victim);
+            participants.addCasualty(victim);
             if (getConfig().isGroupMode()) {
                 victim.sendMessage(getLang("watch_to_the_end"));
             }
@@ -281,6 +286,16 @@ public abstract class BaseGame {
         return participants.contains(warrior);
     }
 
+    /**
+     * Updates the route used by {@link TitansBattle#getBaseGameFrom(Warrior)}, must be called whenever the result of
+     * {@link #isParticipant(Warrior)} may have changed
+     *
+     * @param warrior the warrior
+     */
+    protected void updateRoute(@NotNull final Warrior warrior) {
+        plugin.getGameRouter().update(warrior, this);
+    }
+
     public void onDisconnect(@NotNull final Warrior warrior, @Nullable final String rawQuitMessage) {
         if (!isParticipant(warrior)) {
             return;
@@ -289,13 +304,7 @@ public abstract class BaseGame {
         // check if the quit message contains the char sequence to bypass NPC proxy creation
         final String quitMessage = rawQuitMessage == null ? "" : ChatColor.stripColor(rawQuitMessage).trim().toLowerCase();
 
-        final List<String> bypassReasons = plugin.getConfig().getStringList("battle.npcProxy.bypass-reasons");
-
-        final boolean noProxyNPCReason = bypassReasons.stream()
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(s -> ChatColor.stripColor(s).toLowerCase())
+        final boolean noProxyNPCReason = plugin.getConfigManager().getNpcProxyBypassReasons().stream()
                 .anyMatch(reason -> {
                     if (quitMessage.isEmpty()) return false;
                     if (quitMessage.contains(reason)) return true;
@@ -309,7 +318,8 @@ public abstract class BaseGame {
                 try {
                     // Check if player hasn't exceeded disconnect limits
                     if (!plugin.getDisconnectTrackingManager().trackDisconnection(warrior.getUniqueId())) {
-                        plugin.debug(String.format("onDisconnect() -> kill player %s (disconnect limit exceeded)", player.getName()));
+                        plugin.getDebugLogger().debug(Category.NPC,
+                                "onDisconnect() -> kill player {} (disconnect limit exceeded)", player.getName());
                         player.setHealth(0);
                         return;
                     }
@@ -320,21 +330,24 @@ public abstract class BaseGame {
                         final Location location = player.getLocation();
                         npcProvider.spawnProxy(player, location);
 
-                        plugin.debug(String.format("onDisconnect() -> spawned NPC proxy for %s (disconnect #%d)",
-                                player.getName(), plugin.getDisconnectTrackingManager().getDisconnectionCount(warrior.getUniqueId())));
+                        plugin.getDebugLogger().debug(Category.NPC,
+                                "onDisconnect() -> spawned NPC proxy for {} (disconnect #{})",
+                                player.getName(), plugin.getDisconnectTrackingManager().getDisconnectionCount(warrior.getUniqueId()));
                         return;
                     } else {
-                        plugin.debug("NPC provider not available, falling back to normal disconnect behavior");
+                        plugin.getDebugLogger().debug(Category.NPC,
+                                "NPC provider not available, falling back to normal disconnect behavior");
                     }
                 } catch (final Exception e) {
                     plugin.getLogger().warning("Failed to create NPC proxy for " + player.getName() + ": " + e.getMessage());
-                    plugin.debug("onDisconnect() -> kill player " + player.getName() + " (NPC proxy failed)");
+                    plugin.getDebugLogger().debug(Category.NPC, "onDisconnect() -> kill player {} (NPC proxy failed)",
+                            player.getName());
                 }
             }
 
             // Fallback behavior: kill the player if NPC proxy creation failed or is disabled
             if (player != null) {
-                plugin.debug(String.format("onDisconnect() -> kill player %s", player.getName()));
+                plugin.getDebugLogger().debug(Category.NPC, "onDisconnect() -> kill player {}", player.getName());
                 player.setHealth(0);
             }
             return;
@@ -345,8 +358,8 @@ public abstract class BaseGame {
         }
 
         // Normal disconnect processing for non-combat situations
-        casualties.add(warrior);
-        casualtiesWatching.add(warrior); //adding to this Collection, so they are not teleported on respawn
+        participants.addCasualty(warrior);
+        participants.setWatching(warrior); //so they are not teleported on respawn
         plugin.getConfigManager().getRespawn().add(warrior.getUniqueId());
         plugin.getConfigManager().save();
         processPlayerExit(warrior);
@@ -356,7 +369,7 @@ public abstract class BaseGame {
      * Check if NPC proxy should be created based on configuration
      */
     private boolean shouldCreateNpcProxy() {
-        return plugin.getConfig().getBoolean("battle.npcProxy.enabled", true);
+        return plugin.getConfigManager().isNpcProxyEnabled();
     }
 
     public void onLeave(@NotNull final Warrior warrior) {
@@ -368,7 +381,7 @@ public abstract class BaseGame {
         }
         final Player player = Objects.requireNonNull(warrior.toOnlinePlayer());
         if (!isLobby() && getCurrentFighters().contains(warrior)) {
-            plugin.debug(String.format("onLeave() -> kill player %s", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "onLeave() -> kill player {}", player.getName());
             player.setHealth(0);
             return;
         }
@@ -378,9 +391,9 @@ public abstract class BaseGame {
     }
 
     public void onRespawn(final PlayerRespawnEvent event, @NotNull final Warrior warrior) {
-        plugin.debug(String.format("onRespawn() -> warrior %s", warrior.getName()));
-        if (casualties.contains(warrior) && !casualtiesWatching.contains(warrior)) {
-            casualtiesWatching.add(warrior);
+        plugin.getDebugLogger().debug(Category.GAME, "onRespawn() -> warrior {}", warrior.getName());
+        if (participants.isCasualty(warrior) && !participants.isWatching(warrior)) {
+            participants.setWatching(warrior);
             event.setRespawnLocation(getConfig().getExit());
         }
     }
@@ -390,7 +403,7 @@ public abstract class BaseGame {
     public abstract boolean shouldKeepInventoryOnDeath(@NotNull Warrior warrior);
 
     public @Unmodifiable @NotNull List<Warrior> getParticipants() {
-        return Collections.unmodifiableList(participants);
+        return participants.asList();
     }
 
     @NotNull
@@ -398,23 +411,40 @@ public abstract class BaseGame {
         return getParticipants().stream().map(Warrior::toOnlinePlayer).filter(Objects::nonNull);
     }
 
-    public Map<Group, Integer> getGroupParticipants() {
+    /**
+     * @return the number of participants of each group, as a read-only view, or an empty map if not in group mode
+     */
+    public @Unmodifiable @NotNull Map<Group, Integer> getGroupParticipants() {
         if (!getConfig().isGroupMode()) {
             return Collections.emptyMap();
         }
-        final Map<Group, Integer> groupIntegerMap = new HashMap<>();
-        for (final Warrior w : participants) {
-            groupIntegerMap.compute(getGroup(w), (g, i) -> i == null ? 1 : i + 1);
-        }
-        return groupIntegerMap;
+        return participants.getGroups();
     }
 
     protected @Nullable Group getGroup(@NotNull final Warrior warrior) {
-        return groups.get(warrior);
+        return participants.getGroup(warrior);
+    }
+
+    /**
+     * @return the online participants, looked up when a message is sent
+     */
+    public @NotNull Audience getParticipantsAudience() {
+        return participantsAudience;
+    }
+
+    /**
+     * @param group the group, or null for the participants without one
+     * @return the online participants of the group, looked up when a message is sent
+     */
+    public @NotNull Audience getGroupAudience(@Nullable final Group group) {
+        return groupAudiences.computeIfAbsent(group, g -> (ForwardingAudience) () -> participants.getMembers(g).stream()
+                .map(Warrior::toOnlinePlayer)
+                .filter(Objects::nonNull)
+                .toList());
     }
 
     public Collection<Warrior> getCasualties() {
-        return casualties;
+        return participants.getCasualties();
     }
 
     public abstract @NotNull Collection<Warrior> getCurrentFighters();
@@ -424,7 +454,7 @@ public abstract class BaseGame {
     }
 
     public void broadcastKey(@NotNull final String key, final Object... args) {
-        broadcast(getLang(key), args);
+        sendBroadcast(getLang(key, args));
     }
 
     public void discordAnnounce(@NotNull final String key, final Object... args) {
@@ -435,13 +465,14 @@ public abstract class BaseGame {
         if (message == null || message.isEmpty()) {
             return;
         }
-        message = MessageFormat.format(message, args);
+        sendBroadcast(MessageFormat.format(message, args));
+    }
+
+    private void sendBroadcast(@NotNull final String message) {
         if (message.startsWith("!!broadcast")) {
-            Bukkit.broadcast(message.replace("!!broadcast", ""), "titansbattle.broadcast");
+            plugin.getBroadcastManager().sendMessage(message.replace("!!broadcast", ""), "titansbattle.broadcast");
         } else {
-            for (final Warrior warrior : getParticipants()) {
-                warrior.sendMessage(message);
-            }
+            plugin.getBroadcastManager().sendMessage(participantsAudience, message);
         }
     }
 
@@ -558,13 +589,13 @@ public abstract class BaseGame {
 
         final PlayerJoinGameEvent event = new PlayerJoinGameEvent(warrior, player, this);
         Bukkit.getPluginManager().callEvent(event);
-        plugin.debug("cancel: " + event.isCancelled());
+        plugin.getDebugLogger().debug(Category.GAME, "cancel: {}", event.isCancelled());
 
         return !event.isCancelled();
     }
 
     protected void processPlayerExit(@NotNull final Warrior warrior) {
-        plugin.debug(String.format("processPlayerExit() -> warrior %s", warrior.getName()));
+        plugin.getDebugLogger().debug(Category.COMBAT, "processPlayerExit() -> warrior {}", warrior.getName());
         if (!isParticipant(warrior)) {
             return;
         }
@@ -596,16 +627,18 @@ public abstract class BaseGame {
      * @param reason  the reason for elimination (for logging)
      */
     public void eliminate(@NotNull final Warrior warrior, @NotNull final String reason) {
-        plugin.debug(String.format("eliminate() -> warrior %s, reason: %s", warrior.getName(), reason));
+        plugin.getDebugLogger().debug(Category.COMBAT, "eliminate() -> warrior {}, reason: {}",
+                warrior.getName(), reason);
 
         if (!isParticipant(warrior)) {
-            plugin.debug("Warrior " + warrior.getName() + " is not a participant, cannot eliminate");
+            plugin.getDebugLogger().debug(Category.COMBAT, "Warrior {} is not a participant, cannot eliminate",
+                    warrior.getName());
             return;
         }
 
         // Add to casualties
-        casualties.add(warrior);
-        casualtiesWatching.add(warrior);
+        participants.addCasualty(warrior);
+        participants.setWatching(warrior);
 
         // Process the player exit
         processPlayerExit(warrior);
@@ -648,27 +681,22 @@ public abstract class BaseGame {
     }
 
     protected void sendRemainingOpponentsCount() {
-        getPlayerParticipantsStream().forEach(p -> {
-            final int remainingPlayers = getRemainingOpponents();
-            final int remainingGroups = getRemainingOpponentGroups(p);
+        final int remainingPlayers = getRemainingOpponents();
+        getGroupParticipants().forEach((group, count) -> {
+            final int remainingGroups = getRemainingOpponentGroups(group);
             if (Math.min(remainingPlayers, remainingGroups) <= 0) {
                 return;
             }
-            MessageUtils.sendActionBar(p, MessageFormat.format(getLang("action-bar-remaining-opponents"), remainingPlayers, remainingGroups));
+            plugin.getBroadcastManager().sendActionBar(getGroupAudience(group),
+                    getLang("action-bar-remaining-opponents", remainingPlayers, remainingGroups));
         });
     }
 
-    protected int getRemainingOpponentGroups(@NotNull final Player player) {
-        int opponents = 0;
-        final Warrior warrior = plugin.getDatabaseManager().getWarrior(player);
-        for (final Map.Entry<Group, Integer> entry : getGroupParticipants().entrySet()) {
-            final Group group = entry.getKey();
-            if (group.equals(getGroup(warrior))) {
-                continue;
-            }
-            opponents += entry.getValue();
+    protected int getRemainingOpponentGroups(@Nullable final Group group) {
+        if (!getConfig().isGroupMode()) {
+            return 0;
         }
-        return opponents;
+        return participants.size() - getGroupParticipants().getOrDefault(group, 0);
     }
 
     protected int getRemainingOpponents() {
@@ -754,7 +782,7 @@ public abstract class BaseGame {
     }
 
     protected void startPreparation() {
-        plugin.debug("startPreparation()");
+        plugin.getDebugLogger().debug(Category.GAME, "startPreparation()");
         preparation = true;
         addTask(new PreparationTimeTask().runTaskLater(plugin, getConfig().getPreparationTime() * 20L));
         addTask(new CountdownTitleTask(getCurrentFighters(), getConfig().getPreparationTime()).runTaskTimer(plugin, 0L, 20L));
@@ -838,9 +866,7 @@ public abstract class BaseGame {
         public void run() {
             if (seconds > 0) {
                 seconds--;
-                participants.stream()
-                        .map(Warrior::toOnlinePlayer)
-                        .filter(Objects::nonNull)
+                getPlayerParticipantsStream()
                         .forEach(p -> p.sendTitle(getColor(seconds) + "" + seconds, ""));
             } else {
                 this.cancel();
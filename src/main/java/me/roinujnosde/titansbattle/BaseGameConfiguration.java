@@ -88,6 +88,10 @@ public abstract class BaseGameConfiguration implements ConfigurationSerializable
     protected List<Integer> blockedProtocols;
     @Path("minimum.y.height")
     protected Integer minimumYHeight = 0;
+    @Path("commands.allowed")
+    protected @Nullable List<String> allowedCommands;
+    @Path("commands.blocked")
+    protected @Nullable List<String> blockedCommands;
     @Path("prizes")
     private Map<String, Prizes> prizesMap = createPrizesMap();
 
@@ -315,6 +319,20 @@ public abstract class BaseGameConfiguration implements ConfigurationSerializable
         return minimumYHeight;
     }
 
+    /**
+     * @return the commands allowed in this game, besides the ones allowed in config.yml
+     */
+    public @Nullable List<String> getAllowedCommands() {
+        return allowedCommands;
+    }
+
+    /**
+     * @return the commands blocked in this game, even if allowed in config.yml
+     */
+    public @Nullable List<String> getBlockedCommands() {
+        return blockedCommands;
+    }
+
     public enum Destination {
         EXIT, LOBBY, WATCHROOM, BORDER_CENTER
     }
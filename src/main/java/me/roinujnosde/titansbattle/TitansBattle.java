@@ -21,19 +21,20 @@
  ***************************************************************************** */
 package me.roinujnosde.titansbattle;
 
-import me.roinujnosde.titansbattle.challenges.Challenge;
-import me.roinujnosde.titansbattle.challenges.ChallengeRequest;
 import me.roinujnosde.titansbattle.combat.DisconnectTrackingManager;
 import me.roinujnosde.titansbattle.dao.ConfigurationDao;
-import me.roinujnosde.titansbattle.games.Game;
 import me.roinujnosde.titansbattle.hooks.discord.DiscordWebhook;
 import me.roinujnosde.titansbattle.hooks.papi.PlaceholderHook;
 import me.roinujnosde.titansbattle.hooks.viaversion.ViaVersionHook;
+import me.roinujnosde.titansbattle.logging.DebugLogger;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
+import me.roinujnosde.titansbattle.managers.BroadcastManager;
 import me.roinujnosde.titansbattle.managers.ChallengeManager;
 import me.roinujnosde.titansbattle.managers.CommandManager;
 import me.roinujnosde.titansbattle.managers.ConfigManager;
 import me.roinujnosde.titansbattle.managers.DatabaseManager;
 import me.roinujnosde.titansbattle.managers.GameManager;
+import me.roinujnosde.titansbattle.managers.GameRouter;
 import me.roinujnosde.titansbattle.managers.GroupManager;
 import me.roinujnosde.titansbattle.managers.LanguageManager;
 import me.roinujnosde.titansbattle.managers.ListenerManager;
@@ -42,13 +43,13 @@ import me.roinujnosde.titansbattle.managers.SpectateManager;
 import me.roinujnosde.titansbattle.managers.TaskManager;
 import me.roinujnosde.titansbattle.npc.NpcProvider;
 import me.roinujnosde.titansbattle.npc.NpcProviderResolver;
+import me.roinujnosde.titansbattle.ranking.RankingService;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
 import me.roinujnosde.titansbattle.types.Kit;
 import me.roinujnosde.titansbattle.types.Prizes;
 import me.roinujnosde.titansbattle.types.Warrior;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.bukkit.entity.Player;
@@ -57,9 +58,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.text.MessageFormat;
-import java.util.List;
-import java.util.Optional;
 import java.util.logging.Level;
 
 /**
@@ -82,6 +80,10 @@ public final class TitansBattle extends JavaPlugin {
     private SpectateManager spectateManager;
     private NpcProvider npcProvider;
     private DisconnectTrackingManager disconnectTrackingManager;
+    private RankingService rankingService;
+    private GameRouter gameRouter;
+    private DebugLogger debugLogger;
+    private BroadcastManager broadcastManager;
 
     public static TitansBattle getInstance() {
         return instance;
@@ -92,17 +94,21 @@ public final class TitansBattle extends JavaPlugin {
         setupConfig();
         registerSerializationClasses();
         instance = this;
+        debugLogger = new DebugLogger(getLogger(), getDataFolder());
         gameManager = new GameManager();
         configManager = new ConfigManager();
         taskManager = new TaskManager();
         languageManager = new LanguageManager();
         databaseManager = new DatabaseManager();
+        rankingService = new RankingService(this);
+        gameRouter = new GameRouter();
         challengeManager = new ChallengeManager(this);
         listenerManager = new ListenerManager(this);
         configurationDao = new ConfigurationDao(getDataFolder());
         spectateManager = new SpectateManager(this);
         npcProvider = NpcProviderResolver.resolve(this);
         disconnectTrackingManager = new DisconnectTrackingManager(this);
+        broadcastManager = new BroadcastManager(this);
 
         configManager.load();
         languageManager.setup();
@@ -114,6 +120,9 @@ public final class TitansBattle extends JavaPlugin {
         listenerManager.registerGeneralListeners();
         databaseManager.loadDataToMemory();
         taskManager.setupScheduler();
+        taskManager.startEvictionTask();
+        taskManager.startAutoSaveTask();
+        taskManager.startActionBarTask();
         placeholderHook = new PlaceholderHook(this);
         if (Bukkit.getPluginManager().isPluginEnabled("ViaVersion")) {
             viaVersionHook = new ViaVersionHook();
@@ -122,20 +131,7 @@ public final class TitansBattle extends JavaPlugin {
     }
 
     public @Nullable BaseGame getBaseGameFrom(@NotNull final Player player) {
-        final Warrior warrior = getDatabaseManager().getWarrior(player);
-
-        final Optional<Game> currentGame = getGameManager().getCurrentGame();
-        if (currentGame.isPresent() && currentGame.get().isParticipant(warrior)) {
-            return currentGame.get();
-        }
-        final List<ChallengeRequest<?>> requests = getChallengeManager().getRequests();
-        for (final ChallengeRequest<?> request : requests) {
-            final Challenge challenge = request.getChallenge();
-            if (challenge.isParticipant(warrior)) {
-                return challenge;
-            }
-        }
-        return null;
+        return gameRouter.get(player.getUniqueId());
     }
 
     /**
@@ -145,24 +141,29 @@ public final class TitansBattle extends JavaPlugin {
      * @return the base game or null if not participating
      */
     public @Nullable BaseGame getBaseGameFrom(@NotNull final Warrior warrior) {
-        final Optional<Game> currentGame = getGameManager().getCurrentGame();
-        if (currentGame.isPresent() && currentGame.get().isParticipant(warrior)) {
-            return currentGame.get();
-        }
-        final List<ChallengeRequest<?>> requests = getChallengeManager().getRequests();
-        for (final ChallengeRequest<?> request : requests) {
-            final Challenge challenge = request.getChallenge();
-            if (challenge.isParticipant(warrior)) {
-                return challenge;
-            }
-        }
-        return null;
+        return gameRouter.get(warrior.getUniqueId());
+    }
+
+    public GameRouter getGameRouter() {
+        return gameRouter;
+    }
+
+    public DebugLogger getDebugLogger() {
+        return debugLogger;
+    }
+
+    public BroadcastManager getBroadcastManager() {
+        return broadcastManager;
     }
 
     public DatabaseManager getDatabaseManager() {
         return databaseManager;
     }
 
+    public RankingService getRankingService() {
+        return rankingService;
+    }
+
     @Override
     public void onDisable() {
         challengeManager.getChallenges().forEach(c -> c.cancel(Bukkit.getConsoleSender()));
@@ -174,6 +175,7 @@ public final class TitansBattle extends JavaPlugin {
             disconnectTrackingManager.clearAll();
         }
         databaseManager.close();
+        debugLogger.close();
     }
 
     public @Nullable GroupManager getGroupManager() {
@@ -237,17 +239,8 @@ public final class TitansBattle extends JavaPlugin {
      * @param config a FileConfiguration to access
      * @return the language from the config, with its color codes (&) translated
      */
-    @SuppressWarnings("deprecation")
     public @NotNull String getLang(@NotNull final String path, @Nullable final FileConfiguration config, final Object... args) {
-        String language = null;
-        if (config != null) {
-            language = config.getString("language." + path);
-        }
-        if (language == null) {
-            language = getLanguageManager().getConfig().getString(path,
-                    getLanguageManager().getEnglishLanguageFile().getString(path, "<MISSING KEY: " + path + ">"));
-        }
-        return ChatColor.translateAlternateColorCodes('&', MessageFormat.format(language, args));
+        return getLanguageManager().getTemplate(path, config).format(args);
     }
 
     public String getLang(@NotNull final String path, final Object... args) {
@@ -280,7 +273,8 @@ public final class TitansBattle extends JavaPlugin {
      * @param respectUserDecision should the message be sent if debug is false?
      */
     public void debug(final String message, final boolean respectUserDecision) {
-        if (respectUserDecision && !configManager.isDebug()) {
+        if (respectUserDecision) {
+            debugLogger.debug(Category.GAME, message);
             return;
         }
         getLogger().info(message);
@@ -81,7 +81,7 @@ public class Challenge extends BaseGame {
 
     @Override
     public @NotNull Collection<Warrior> getCurrentFighters() {
-        return participants;
+        return getParticipants();
     }
 
     @Override
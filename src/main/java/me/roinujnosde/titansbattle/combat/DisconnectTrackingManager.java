@@ -25,6 +25,7 @@ package me.roinujnosde.titansbattle.combat;
 
 import me.roinujnosde.titansbattle.BaseGame;
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.types.Warrior;
 import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitTask;
@@ -64,12 +65,13 @@ public class DisconnectTrackingManager {
         final DisconnectRecord record = disconnectRecords.computeIfAbsent(playerId, k -> new DisconnectRecord());
         record.recordDisconnection();
 
-        plugin.debug(String.format("Player %s disconnected %d times (max: %d)",
-                playerId, record.getDisconnectionCount(), maxDisconnections));
+        plugin.getDebugLogger().debug(Category.NPC, "Player {} disconnected {} times (max: {})",
+                playerId, record.getDisconnectionCount(), maxDisconnections);
 
         if (record.getDisconnectionCount() > maxDisconnections) {
-            plugin.debug(String.format("Player %s exceeded max disconnections (%d), no NPC proxy will be created",
-                    playerId, maxDisconnections));
+            plugin.getDebugLogger().debug(Category.NPC,
+                    "Player {} exceeded max disconnections ({}), no NPC proxy will be created",
+                    playerId, maxDisconnections);
             return false;
         }
 
@@ -91,8 +93,9 @@ public class DisconnectTrackingManager {
         }
 
         final boolean canReturn = record.getDisconnectionCount() <= maxDisconnections;
-        plugin.debug(String.format("Player %s return check: %s (disconnections: %d, max: %d)",
-                playerId, canReturn, record.getDisconnectionCount(), maxDisconnections));
+        plugin.getDebugLogger().debug(Category.NPC,
+                () -> String.format("Player %s return check: %s (disconnections: %d, max: %d)",
+                        playerId, canReturn, record.getDisconnectionCount(), maxDisconnections));
 
         return canReturn;
     }
@@ -107,7 +110,7 @@ public class DisconnectTrackingManager {
         final BukkitTask timeoutTask = timeoutTasks.remove(playerId);
         if (timeoutTask != null && !timeoutTask.isCancelled()) {
             timeoutTask.cancel();
-            plugin.debug("Cancelled timeout task for reconnected player " + playerId);
+            plugin.getDebugLogger().debug(Category.NPC, "Cancelled timeout task for reconnected player {}", playerId);
         }
     }
 
@@ -124,7 +127,7 @@ public class DisconnectTrackingManager {
             timeoutTask.cancel();
         }
 
-        plugin.debug("Cleared disconnect tracking for player " + playerId);
+        plugin.getDebugLogger().debug(Category.NPC, "Cleared disconnect tracking for player {}", playerId);
     }
 
     /**
@@ -140,7 +143,7 @@ public class DisconnectTrackingManager {
 
         disconnectRecords.clear();
         timeoutTasks.clear();
-        plugin.debug("Cleared all disconnect tracking");
+        plugin.getDebugLogger().debug(Category.NPC, "Cleared all disconnect tracking");
     }
 
     /**
@@ -174,8 +177,8 @@ public class DisconnectTrackingManager {
 
         timeoutTasks.put(playerId, timeoutTask);
 
-        plugin.debug(String.format("Scheduled timeout task for player %s in %d ms (%d ticks)",
-                playerId, maxOfflineTimeMs, timeoutTicks));
+        plugin.getDebugLogger().debug(Category.NPC, "Scheduled timeout task for player {} in {} ms ({} ticks)",
+                playerId, maxOfflineTimeMs, timeoutTicks);
     }
 
     /**
@@ -184,7 +187,7 @@ public class DisconnectTrackingManager {
      * @param playerId the UUID of the player who timed out
      */
     private void handlePlayerTimeout(@NotNull final UUID playerId) {
-        plugin.debug("Player " + playerId + " timed out, removing NPC proxy");
+        plugin.getDebugLogger().debug(Category.NPC, "Player {} timed out, removing NPC proxy", playerId);
 
         // Remove timeout task reference
         timeoutTasks.remove(playerId);
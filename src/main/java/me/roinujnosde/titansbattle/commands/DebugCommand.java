@@ -0,0 +1,91 @@
+package me.roinujnosde.titansbattle.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Default;
+import co.aikar.commands.annotation.Dependency;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Optional;
+import co.aikar.commands.annotation.Subcommand;
+import me.roinujnosde.titansbattle.BaseGame;
+import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.database.BatchWriter;
+import me.roinujnosde.titansbattle.database.DatabaseExecutor;
+import me.roinujnosde.titansbattle.database.WarriorCache;
+import me.roinujnosde.titansbattle.managers.DatabaseManager;
+import me.roinujnosde.titansbattle.managers.GameRouter;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@CommandAlias("%titansbattle|tb")
+@Subcommand("%debug|debug")
+public class DebugCommand extends BaseCommand {
+
+    @Dependency
+    private TitansBattle plugin;
+    @Dependency
+    private DatabaseManager databaseManager;
+
+    @Subcommand("%cache|cache")
+    @CommandPermission("titansbattle.debug")
+    @Description("{@@command.description.debug.cache}")
+    public void cache(CommandSender sender) {
+        final WarriorCache.Stats stats = databaseManager.getWarriorCacheStats();
+        sender.sendMessage(plugin.getLang("debug.cache", stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                String.format("%.1f%%", stats.getHitRate() * 100), stats.evictions(),
+                databaseManager.isLazyLoading()));
+    }
+
+    @Subcommand("%benchmark|benchmark")
+    @CommandPermission("titansbattle.debug")
+    @Description("{@@command.description.debug.benchmark}")
+    public void benchmark(CommandSender sender, @Optional @Default("1000") int statements) {
+        if (plugin.getConfigManager().isSqlUseMysql()) {
+            sender.sendMessage(plugin.getLang("debug.benchmark.sqlite-only"));
+            return;
+        }
+        sender.sendMessage(plugin.getLang("debug.benchmark.started", statements));
+        databaseManager.benchmarkSqlite(Math.max(1, statements)).whenComplete((result, ex) -> {
+            if (ex != null) {
+                sender.sendMessage(plugin.getLang("debug.benchmark.error", DatabaseExecutor.unwrap(ex).getMessage()));
+                return;
+            }
+            sender.sendMessage(plugin.getLang("debug.benchmark.result", result.statements(),
+                    String.format("%.0f", result.beforePerSecond()), String.format("%.0f", result.afterPerSecond()),
+                    String.format("%.1f", result.getSpeedup())));
+        });
+    }
+
+    @Subcommand("%saves|saves")
+    @CommandPermission("titansbattle.debug")
+    @Description("{@@command.description.debug.saves}")
+    public void saves(CommandSender sender) {
+        final DatabaseManager.SaveStats stats = databaseManager.getSaveStats();
+        final BatchWriter.FlushResult last = stats.lastSave();
+        sender.sendMessage(plugin.getLang("debug.saves", stats.saves(), stats.failures(), stats.skipped(),
+                stats.running(), last != null ? last.rows() : 0, last != null ? last.elapsedMillis() : 0));
+    }
+
+    @Subcommand("%routing|routing")
+    @CommandPermission("titansbattle.debug")
+    @Description("{@@command.description.debug.routing}")
+    public void routing(CommandSender sender) {
+        final List<BaseGame> games = new ArrayList<>(plugin.getChallengeManager().getChallenges());
+        plugin.getGameManager().getCurrentGame().ifPresent(games::add);
+        final GameRouter router = plugin.getGameRouter();
+        final List<GameRouter.Mismatch> mismatches = router.validate(games, databaseManager::getWarrior);
+        sender.sendMessage(plugin.getLang("debug.routing", router.size(), games.size(), mismatches.size()));
+        for (final GameRouter.Mismatch mismatch : mismatches) {
+            sender.sendMessage(plugin.getLang("debug.routing.mismatch", databaseManager.getWarrior(mismatch.uuid())
+                    .getName(), getName(mismatch.expected()), getName(mismatch.routed())));
+        }
+    }
+
+    private String getName(@Nullable BaseGame game) {
+        return game != null ? game.getConfig().getName() : "-";
+    }
+}
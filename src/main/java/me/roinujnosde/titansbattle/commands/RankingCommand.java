@@ -13,16 +13,24 @@ import co.aikar.commands.annotation.Values;
 import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.managers.ConfigManager;
 import me.roinujnosde.titansbattle.managers.DatabaseManager;
+import me.roinujnosde.titansbattle.managers.GroupManager;
+import me.roinujnosde.titansbattle.ranking.Leaderboard;
+import me.roinujnosde.titansbattle.ranking.RankingEntry;
+import me.roinujnosde.titansbattle.types.Counter;
 import me.roinujnosde.titansbattle.types.Group;
+import me.roinujnosde.titansbattle.types.GroupData;
 import me.roinujnosde.titansbattle.types.Warrior;
 import me.roinujnosde.titansbattle.utils.Helper;
 import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.function.BiFunction;
-import java.util.function.Function;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
 
 @CommandAlias("%titansbattle|tb")
 @Subcommand("%ranking|ranking")
@@ -43,16 +51,28 @@ public class RankingCommand extends BaseCommand {
                               @Values("@games") String game,
                               @Values("@order_by:type=group") @Optional @Nullable String order,
                               @Optional @Default("1") int page) {
-        final List<Group> groups;
-        if (plugin.getGroupManager() != null) {
-            groups = new ArrayList<>(plugin.getGroupManager().getGroups());
-        } else {
-            groups = new ArrayList<>(0);
+        final GroupManager groupManager = plugin.getGroupManager();
+        final List<RankingEntry> entries = new ArrayList<>();
+        if (groupManager != null) {
+            final Leaderboard<String> leaderboard = databaseManager.getGroupsLeaderboard(game, getOrder(order));
+            boolean removed = true;
+            while (removed) {
+                removed = false;
+                entries.clear();
+                for (final String id : getPage(leaderboard, page)) {
+                    final Group group = groupManager.getGroupById(id);
+                    if (group != null) {
+                        entries.add(toEntry(group, game));
+                        continue;
+                    }
+                    // it no longer exists, the page is read again without it
+                    databaseManager.removeFromGroupsLeaderboards(id);
+                    removed = true;
+                }
+            }
         }
 
-        sortGroups(groups, game, order);
-
-        showRanking(sender, game, groups, this::makeGroupTitle, this::makeGroupLine, page);
+        showRanking(sender, entries, page, this::sendGroupsPage);
     }
 
     @Subcommand("%players|players")
@@ -63,273 +83,207 @@ public class RankingCommand extends BaseCommand {
                                @Values("@games") String game,
                                @Values("@order_by:type=warrior") @Optional @Nullable String order,
                                @Optional @Default("1") int page) {
-        final List<Warrior> warriors = new ArrayList<>(databaseManager.getWarriors());
-        sortWarriors(warriors, game, order);
-
-        showRanking(sender, game, warriors, this::makeWarriorTitle, this::makeWarriorLine, page);
-    }
-
-    private <T> void showRanking(CommandSender sender,
-                                 String gameName,
-                                 List<T> list,
-                                 BiFunction<List<T>, String, String> titleFunction,
-                                 Function<LineElement<T>, String> lineFunction,
-                                 int page) {
-        if (list.isEmpty()) {
-            sender.sendMessage(plugin.getLang("no-data-found"));
+        if (databaseManager.isLazyLoading()) {
+            // not every warrior is in memory, the database sorts them
+            final int limit = configManager.getPageLimitRanking();
+            databaseManager.getWarriorsRanking(game, getOrder(order), (page - 1) * limit, limit)
+                    .thenAccept(entries -> showRanking(sender, entries, page, this::sendWarriorsPage));
             return;
         }
-
-        int pageLimit = configManager.getPageLimitRanking();
-        int first = (page - 1) * pageLimit;
-        int last = first + pageLimit;
-
-        if (list.size() <= first) {
-            sender.sendMessage(plugin.getLang("inexistent-page"));
-            return;
+        final List<RankingEntry> entries = new ArrayList<>();
+        for (final UUID uuid : getPage(databaseManager.getWarriorsLeaderboard(game, getOrder(order)), page)) {
+            entries.add(toEntry(databaseManager.getWarrior(uuid), game));
         }
-        list = list.subList(first, Math.min(last, list.size()));
-
-        sender.sendMessage(titleFunction.apply(list, gameName));
 
-        for (int i = 0; i < list.size(); i++) {
-            LineElement<T> element = new LineElement<>();
-            element.gameName = gameName;
-            element.list = list;
-            element.data = list.get(i);
-            element.pos = String.format("%2d", (page - 1) * configManager.getPageLimitRanking() + i + 1);
-            sender.sendMessage(lineFunction.apply(element));
-        }
+        showRanking(sender, entries, page, this::sendWarriorsPage);
     }
 
-    private void sortGroups(final List<Group> groups, final String game, @Nullable String order) {
-        groups.sort((g, g2) -> Integer.compare(g.getData().getVictories(game), g2.getData().getVictories(game)) * -1);
-        if (order != null) {
-            if (order.equalsIgnoreCase("kills")) {
-                groups.sort((g, g2) -> Integer.compare(g.getData().getKills(game), g2.getData().getKills(game)) * -1);
-            }
-            if (order.equalsIgnoreCase("deaths")) {
-                groups.sort((g, g2) -> Integer.compare(g.getData().getDeaths(game), g2.getData().getDeaths(game)) * -1);
-            }
-            if (order.equalsIgnoreCase("defeats")) {
-                groups.sort((g, g2) -> Integer.compare(g.getData().getDefeats(game), g2.getData().getDefeats(game)) * -1);
-            }
-        }
+    @Subcommand("%history %groups|history groups")
+    @CommandPermission("titansbattle.ranking")
+    @CommandCompletion("@games @range:1-30 @order_by:type=group")
+    @Description("{@@command.description.ranking.history.groups}")
+    public void groupsHistoryRanking(CommandSender sender,
+                                     @Values("@games") String game,
+                                     int days,
+                                     @Values("@order_by:type=group") @Optional @Nullable String order,
+                                     @Optional @Default("1") int page) {
+        final int limit = configManager.getPageLimitRanking();
+        databaseManager.getGroupsHistoryRanking(game, getOrder(order), days, (page - 1) * limit, limit)
+                .thenAccept(entries -> showRanking(sender, entries, page, this::sendGroupsPage));
     }
 
-    private void sortWarriors(final List<Warrior> warriors, final String game, final @Nullable String order) {
-        warriors.sort((w, w2) -> Integer.compare(w.getVictories(game), w2.getVictories(game)) * -1);
-        if (order != null) {
-            if (order.equalsIgnoreCase("kills")) {
-                warriors.sort((w, w2) -> Integer.compare(w.getKills(game), w2.getKills(game)) * -1);
-            }
-            if (order.equalsIgnoreCase("deaths")) {
-                warriors.sort((w, w2) -> Integer.compare(w.getDeaths(game), w2.getDeaths(game)) * -1);
-            }
-        }
+    @Subcommand("%history %players|history players")
+    @CommandPermission("titansbattle.ranking")
+    @CommandCompletion("@games @range:1-30 @order_by:type=warrior")
+    @Description("{@@command.description.ranking.history.players}")
+    public void playersHistoryRanking(CommandSender sender,
+                                      @Values("@games") String game,
+                                      int days,
+                                      @Values("@order_by:type=warrior") @Optional @Nullable String order,
+                                      @Optional @Default("1") int page) {
+        final int limit = configManager.getPageLimitRanking();
+        databaseManager.getWarriorsHistoryRanking(game, getOrder(order), days, (page - 1) * limit, limit)
+                .thenAccept(entries -> showRanking(sender, entries, page, this::sendWarriorsPage));
     }
 
-    private int getDefeatsSize(List<Group> groups, String game) {
-        int defeatsSize = String.valueOf(groups.stream().mapToInt(g -> g.getData().getDefeats(game)).max()
-                .orElse(0)).length();
-        if (getDefeatsTitle().length() > defeatsSize) {
-            defeatsSize = getDeathsTitle().length();
-        }
-        return defeatsSize;
+    @Subcommand("%season %groups|season groups")
+    @CommandPermission("titansbattle.ranking")
+    @CommandCompletion("@range:1-10 @games @order_by:type=group")
+    @Description("{@@command.description.ranking.season.groups}")
+    public void groupsSeasonRanking(CommandSender sender,
+                                    int season,
+                                    @Values("@games") String game,
+                                    @Values("@order_by:type=group") @Optional @Nullable String order,
+                                    @Optional @Default("1") int page) {
+        final int limit = configManager.getPageLimitRanking();
+        databaseManager.getSeasonRanking(season, true, game, getOrder(order), (page - 1) * limit, limit)
+                .thenAccept(entries -> showRanking(sender, entries, page, this::sendGroupsPage));
     }
 
-    private int getGroupsDeathsSize(List<Group> groups, String game) {
-        int deathsSize = String.valueOf(groups.stream().mapToInt(g -> g.getData().getDeaths(game)).max().orElse(0)).length();
-        if (getGroupsDeathsTitle().length() > deathsSize) {
-            deathsSize = getGroupsDeathsTitle().length();
-        }
-        return deathsSize;
+    @Subcommand("%season %players|season players")
+    @CommandPermission("titansbattle.ranking")
+    @CommandCompletion("@range:1-10 @games @order_by:type=warrior")
+    @Description("{@@command.description.ranking.season.players}")
+    public void playersSeasonRanking(CommandSender sender,
+                                     int season,
+                                     @Values("@games") String game,
+                                     @Values("@order_by:type=warrior") @Optional @Nullable String order,
+                                     @Optional @Default("1") int page) {
+        final int limit = configManager.getPageLimitRanking();
+        databaseManager.getSeasonRanking(season, false, game, getOrder(order), (page - 1) * limit, limit)
+                .thenAccept(entries -> showRanking(sender, entries, page, this::sendWarriorsPage));
     }
 
-    private int getGroupsKillsSize(List<Group> groups, String game) {
-        int killsSize = String.valueOf(groups.stream().mapToInt(g -> g.getData().getKills(game)).max()
-                .orElse(0)).length();
-        if (getGroupsKillsTitle().length() > killsSize) {
-            killsSize = getGroupsKillsTitle().length();
+    private void showRanking(@NotNull CommandSender sender, @NotNull List<RankingEntry> entries, int page,
+                             @NotNull PageSender pageSender) {
+        if (entries.isEmpty()) {
+            sender.sendMessage(plugin.getLang(page == 1 ? "no-data-found" : "inexistent-page"));
+            return;
         }
-        return killsSize;
+        final int firstPosition = (page - 1) * configManager.getPageLimitRanking() + 1;
+        pageSender.send(sender, entries, firstPosition);
     }
 
-    private int getGroupsVictoriesSize(List<Group> groups, String game) {
-        int victoriesSize = String.valueOf(groups.stream().mapToInt(g -> g.getData().getVictories(game)).max()
-                .orElse(0)).length();
-        if (getGroupsVictoriesTitle().length() > victoriesSize) {
-            victoriesSize = getGroupsVictoriesTitle().length();
+    private <K extends Comparable<K>> @NotNull List<K> getPage(@Nullable Leaderboard<K> leaderboard, int page) {
+        if (leaderboard == null) {
+            return Collections.emptyList();
         }
-        return victoriesSize;
+        final int pageLimit = configManager.getPageLimitRanking();
+        return leaderboard.getRange((page - 1) * pageLimit, pageLimit);
     }
 
-    private int getNameSize(List<Group> groups) {
-        int nameSize = groups.stream().mapToInt(g -> g.getId().length()).max().orElse(0);
-        if (getNameTitle().length() > nameSize) {
-            nameSize = getNameTitle().length();
+    private @NotNull Counter getOrder(@Nullable String order) {
+        if (order == null) {
+            return Counter.VICTORIES;
         }
-        return nameSize;
-    }
-
-    private int getNickSize(final List<Warrior> warriors) {
-        int nickSize = warriors.stream().mapToInt(w -> w.getName().length()).max().orElse(0);
-        if (getNicknameTitle().length() > nickSize) {
-            nickSize = getNicknameTitle().length();
+        try {
+            return Counter.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return Counter.VICTORIES;
         }
-        return nickSize;
     }
 
-    private int getVictoriesSize(final List<Warrior> warriors, final String game) {
-        int victoriesSize = String.valueOf(warriors.stream().mapToInt(w -> w.getVictories(game)).max()
-                .orElse(0)).length();
-        if (getVictoriesTitle().length() > victoriesSize) {
-            victoriesSize = getVictoriesTitle().length();
-        }
-        return victoriesSize;
+    private @NotNull RankingEntry toEntry(@NotNull Warrior w, @NotNull String game) {
+        return new RankingEntry(w.getName(), w.getVictories(game), w.getKills(game), w.getDeaths(game), 0);
     }
 
-    private int getKillsSize(final List<Warrior> warriors, final String game) {
-        int killsSize = String.valueOf(warriors.stream().mapToInt(w -> w.getKills(game)).max().orElse(0))
-                .length();
-        if (getKillsTitle().length() > killsSize) {
-            killsSize = getKillsTitle().length();
-        }
-        return killsSize;
+    private @NotNull RankingEntry toEntry(@NotNull Group g, @NotNull String game) {
+        final GroupData data = g.getData();
+        return new RankingEntry(g.getName(), data.getVictories(game), data.getKills(game), data.getDeaths(game),
+                data.getDefeats(game));
     }
 
-    private int getDeathsSize(final List<Warrior> warriors, final String game) {
-        int deathsSize = String.valueOf(warriors.stream().mapToInt(w -> w.getDeaths(game)).max().orElse(0))
-                .length();
-        if (getDeathsTitle().length() > deathsSize) {
-            deathsSize = getDeathsTitle().length();
+    private void sendGroupsPage(CommandSender sender, List<RankingEntry> entries, int firstPosition) {
+        final String nameTitle = plugin.getLang("groups-ranking.name-title");
+        final String victoriesTitle = plugin.getLang("groups-ranking.victories-title");
+        final String killsTitle = plugin.getLang("groups-ranking.kills-title");
+        final String deathsTitle = plugin.getLang("groups-ranking.deaths-title");
+        final String defeatsTitle = plugin.getLang("groups-ranking.defeats-title");
+
+        final int nameSize = getNameSize(entries, nameTitle);
+        final int victoriesSize = getSize(entries, RankingEntry::victories, victoriesTitle);
+        final int killsSize = getSize(entries, RankingEntry::kills, killsTitle);
+        final int deathsSize = getSize(entries, RankingEntry::deaths, deathsTitle);
+        final int defeatsSize = getSize(entries, RankingEntry::defeats, defeatsTitle);
+
+        sender.sendMessage(plugin.getLang("groups-ranking.title")
+                .replace("%name-title", nameTitle)
+                .replace("%n-space", Helper.getSpaces(nameSize - nameTitle.length()))
+                .replace("%v-space", Helper.getSpaces(victoriesSize - victoriesTitle.length()))
+                .replace("%v-title", victoriesTitle)
+                .replace("%k-space", Helper.getSpaces(killsSize - killsTitle.length()))
+                .replace("%k-title", killsTitle)
+                .replace("%deaths-space", Helper.getSpaces(deathsSize - deathsTitle.length()))
+                .replace("%deaths-title", deathsTitle)
+                .replace("%defeats-space", Helper.getSpaces(defeatsSize - defeatsTitle.length()))
+                .replace("%defeats-title", defeatsTitle));
+
+        final String line = plugin.getLang("groups-ranking.line");
+        for (int i = 0; i < entries.size(); i++) {
+            final RankingEntry e = entries.get(i);
+            sender.sendMessage(line.replace("%position", String.format("%2d", firstPosition + i))
+                    .replace("%name", e.name())
+                    .replace("%n-space", Helper.getSpaces(nameSize - e.name().length()))
+                    .replace("%v-space", Helper.getSpaces(victoriesSize - Helper.getLength(e.victories())))
+                    .replace("%victories", String.valueOf(e.victories()))
+                    .replace("%k-space", Helper.getSpaces(killsSize - Helper.getLength(e.kills())))
+                    .replace("%kills", String.valueOf(e.kills()))
+                    .replace("%deaths-space", Helper.getSpaces(deathsSize - Helper.getLength(e.deaths())))
+                    .replace("%deaths", String.valueOf(e.deaths()))
+                    .replace("%defeats-space", Helper.getSpaces(defeatsSize - Helper.getLength(e.defeats())))
+                    .replace("%defeats", String.valueOf(e.defeats())));
         }
-        return deathsSize;
-    }
-
-    private String getDefeatsTitle() {
-        return plugin.getLang("groups-ranking.defeats-title");
-    }
-
-    private String getGroupsDeathsTitle() {
-        return plugin.getLang("groups-ranking.deaths-title");
-    }
-
-    private String getGroupsKillsTitle() {
-        return plugin.getLang("groups-ranking.kills-title");
     }
 
-    private String getGroupsVictoriesTitle() {
-        return plugin.getLang("groups-ranking.victories-title");
-    }
-
-    private String getNameTitle() {
-        return plugin.getLang("groups-ranking.name-title");
-    }
-
-    private String getNicknameTitle() {
-        return plugin.getLang("players-ranking.nickname-title");
-    }
-
-    private String getVictoriesTitle() {
-        return plugin.getLang("players-ranking.victories-title");
-    }
-
-    private String getKillsTitle() {
-        return plugin.getLang("players-ranking.kills-title");
-    }
-
-    private String getDeathsTitle() {
-        return plugin.getLang("players-ranking.deaths-title");
-    }
-
-    private String makeGroupTitle(List<Group> groups, String game) {
-        return plugin.getLang("groups-ranking.title")
-                .replace("%name-title", getNameTitle())
-                .replace("%n-space", Helper.getSpaces(getNameSize(groups) - getNameTitle().length()))
-                .replace("%v-space", Helper.getSpaces(getGroupsVictoriesSize(groups, game) -
-                        getGroupsVictoriesTitle().length()))
-                .replace("%v-title", getGroupsVictoriesTitle())
-                .replace("%k-space", Helper.getSpaces(getGroupsKillsSize(groups, game) -
-                        getGroupsKillsTitle().length()))
-                .replace("%k-title", getGroupsKillsTitle())
-                .replace("%deaths-space", Helper.getSpaces(getGroupsDeathsSize(groups, game) -
-                        getGroupsDeathsTitle().length()))
-                .replace("%deaths-title", getGroupsDeathsTitle())
-                .replace("%defeats-space", Helper.getSpaces(getGroupsDeathsSize(groups, game)
-                        - getDefeatsTitle().length()))
-                .replace("%defeats-title", getDefeatsTitle());
-    }
-
-    private String makeWarriorTitle(final List<Warrior> warriors, final String game) {
-        return plugin.getLang("players-ranking.title")
-                .replace("%nickname-title", getNicknameTitle())
-                .replace("%v-title", getVictoriesTitle())
-                .replace("%k-title", getKillsTitle())
-                .replace("%d-title", getDeathsTitle())
-                .replace("%n-space", Helper.getSpaces(getNickSize(warriors) - getNicknameTitle().length()))
-                .replace("%v-space", Helper.getSpaces(getVictoriesSize(warriors, game) - getVictoriesTitle().length()))
-                .replace("%k-space", Helper.getSpaces(getKillsSize(warriors, game) - getKillsTitle().length()))
-                .replace("%d-space", Helper.getSpaces(getDeathsSize(warriors, game) - getDeathsTitle().length()));
+    private void sendWarriorsPage(CommandSender sender, List<RankingEntry> entries, int firstPosition) {
+        final String nicknameTitle = plugin.getLang("players-ranking.nickname-title");
+        final String victoriesTitle = plugin.getLang("players-ranking.victories-title");
+        final String killsTitle = plugin.getLang("players-ranking.kills-title");
+        final String deathsTitle = plugin.getLang("players-ranking.deaths-title");
+
+        final int nickSize = getNameSize(entries, nicknameTitle);
+        final int victoriesSize = getSize(entries, RankingEntry::victories, victoriesTitle);
+        final int killsSize = getSize(entries, RankingEntry::kills, killsTitle);
+        final int deathsSize = getSize(entries, RankingEntry::deaths, deathsTitle);
+
+        sender.sendMessage(plugin.getLang("players-ranking.title")
+                .replace("%nickname-title", nicknameTitle)
+                .replace("%v-title", victoriesTitle)
+                .replace("%k-title", killsTitle)
+                .replace("%d-title", deathsTitle)
+                .replace("%n-space", Helper.getSpaces(nickSize - nicknameTitle.length()))
+                .replace("%v-space", Helper.getSpaces(victoriesSize - victoriesTitle.length()))
+                .replace("%k-space", Helper.getSpaces(killsSize - killsTitle.length()))
+                .replace("%d-space", Helper.getSpaces(deathsSize - deathsTitle.length())));
+
+        final String line = plugin.getLang("players-ranking.line");
+        for (int i = 0; i < entries.size(); i++) {
+            final RankingEntry e = entries.get(i);
+            sender.sendMessage(line.replace("%position", String.format("%2d", firstPosition + i))
+                    .replace("%nick", e.name())
+                    .replace("%n-space", Helper.getSpaces(nickSize - e.name().length()))
+                    .replace("%v-space", Helper.getSpaces(victoriesSize - Helper.getLength(e.victories())))
+                    .replace("%victories", String.valueOf(e.victories()))
+                    .replace("%k-space", Helper.getSpaces(killsSize - Helper.getLength(e.kills())))
+                    .replace("%kills", String.valueOf(e.kills()))
+                    .replace("%d-space", Helper.getSpaces(deathsSize - Helper.getLength(e.deaths())))
+                    .replace("%deaths", String.valueOf(e.deaths())));
+        }
     }
 
-    private String makeGroupLine(LineElement<Group> lineElement) {
-        String line = plugin.getLang("groups-ranking.line");
-
-        List<Group> groups = lineElement.list;
-        Group g = lineElement.data;
-        String game = lineElement.gameName;
-        String name = g.getName();
-
-        final int victories = g.getData().getVictories(game);
-        final int kills = g.getData().getKills(game);
-        final int deaths = g.getData().getDeaths(game);
-        final int defeats = g.getData().getDefeats(game);
-        return line.replace("%position", lineElement.pos)
-                .replace("%name", name)
-                .replace("%n-space", Helper.getSpaces(getNameSize(groups) - name.length()))
-                .replace("%v-space", Helper.getSpaces(getGroupsVictoriesSize(groups, game) -
-                        Helper.getLength(victories)))
-                .replace("%victories", String.valueOf(victories))
-                .replace("%k-space", Helper.getSpaces(getGroupsKillsSize(groups, game) -
-                        Helper.getLength(kills)))
-                .replace("%kills", String.valueOf(kills))
-                .replace("%deaths-space", Helper.getSpaces(getGroupsDeathsSize(groups, game) -
-                        Helper.getLength(deaths)))
-                .replace("%deaths", String.valueOf(deaths))
-                .replace("%defeats-space", Helper.getSpaces(getDefeatsSize(groups, game) -
-                        Helper.getLength(defeats)))
-                .replace("%defeats", String.valueOf(defeats));
+    private int getNameSize(List<RankingEntry> entries, String title) {
+        final int nameSize = entries.stream().mapToInt(e -> e.name().length()).max().orElse(0);
+        return Math.max(nameSize, title.length());
     }
 
-    private String makeWarriorLine(LineElement<Warrior> lineElement) {
-        String line = plugin.getLang("players-ranking.line");
-
-        List<Warrior> warriors = lineElement.list;
-        Warrior w = lineElement.data;
-        String game = lineElement.gameName;
-
-        String name = w.getName();
-        int victories = w.getVictories(game);
-        int kills = w.getKills(game);
-        int deaths = w.getDeaths(game);
-
-        return line.replace("%position", lineElement.pos)
-                .replace("%nick", name)
-                .replace("%n-space", Helper.getSpaces(getNickSize(warriors) - name.length()))
-                .replace("%v-space", Helper.getSpaces(getVictoriesSize(warriors, game) - Helper.getLength(victories)))
-                .replace("%victories", String.valueOf(victories))
-                .replace("%k-space", Helper.getSpaces(getKillsSize(warriors, game) - Helper.getLength(kills)))
-                .replace("%kills", String.valueOf(kills))
-                .replace("%d-space", Helper.getSpaces(getDeathsSize(warriors, game) - Helper.getLength(deaths)))
-                .replace("%deaths", String.valueOf(deaths));
+    private int getSize(List<RankingEntry> entries, ToIntFunction<RankingEntry> value, String title) {
+        final int size = Helper.getLength(entries.stream().mapToInt(value).max().orElse(0));
+        return Math.max(size, title.length());
     }
 
-    static class LineElement<T> {
-        String gameName;
-        List<T> list;
-        T data;
-        String pos;
+    @FunctionalInterface
+    private interface PageSender {
+        void send(CommandSender sender, List<RankingEntry> entries, int firstPosition);
     }
 
 }
@@ -0,0 +1,56 @@
+package me.roinujnosde.titansbattle.commands;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Dependency;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.database.DatabaseExecutor;
+import me.roinujnosde.titansbattle.managers.DatabaseManager;
+import org.bukkit.command.CommandSender;
+
+import java.util.stream.Collectors;
+
+@CommandAlias("%titansbattle|tb")
+@Subcommand("%season|season")
+public class SeasonCommand extends BaseCommand {
+
+    @Dependency
+    private TitansBattle plugin;
+    @Dependency
+    private DatabaseManager databaseManager;
+
+    @Subcommand("%start|start")
+    @CommandPermission("titansbattle.season")
+    @Description("{@@command.description.season.start}")
+    public void start(CommandSender sender) {
+        if (plugin.getGameManager().getCurrentGame().isPresent()) {
+            sender.sendMessage(plugin.getLang("season.game-running"));
+            return;
+        }
+        sender.sendMessage(plugin.getLang("season.archiving"));
+        databaseManager.startSeason().whenComplete((season, ex) -> {
+            if (ex != null) {
+                sender.sendMessage(plugin.getLang("season.error", DatabaseExecutor.unwrap(ex).getMessage()));
+                return;
+            }
+            sender.sendMessage(plugin.getLang("season.archived", season));
+        });
+    }
+
+    @Subcommand("%list|list")
+    @CommandPermission("titansbattle.ranking")
+    @Description("{@@command.description.season.list}")
+    public void list(CommandSender sender) {
+        databaseManager.getSeasons().thenAccept(seasons -> {
+            if (seasons.isEmpty()) {
+                sender.sendMessage(plugin.getLang("no-data-found"));
+                return;
+            }
+            sender.sendMessage(plugin.getLang("season.list", seasons.stream().map(String::valueOf)
+                    .collect(Collectors.joining(", "))));
+        });
+    }
+}
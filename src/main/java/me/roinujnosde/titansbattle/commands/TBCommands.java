@@ -37,7 +37,6 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -98,11 +97,11 @@ public class TBCommands extends BaseCommand {
         final Warrior warrior = databaseManager.getWarrior(player.getPlayer());
         final String wName = warrior.getName();
         if (!game.isParticipant(warrior)) {
-            sender.sendMessage(MessageFormat.format(plugin.getLang("player_not_participating", game), wName));
+            sender.sendMessage(plugin.getLang("player_not_participating", game, wName));
             return;
         }
         game.onKick(warrior);
-        sender.sendMessage(MessageFormat.format(plugin.getLang("has_been_kicked"), wName));
+        sender.sendMessage(plugin.getLang("has_been_kicked", wName));
     }
 
     @Subcommand("%cancel|cancel")
@@ -124,6 +123,8 @@ public class TBCommands extends BaseCommand {
         plugin.getLanguageManager().reload();
         configDao.loadConfigurations();
         taskManager.setupScheduler();
+        taskManager.startAutoSaveTask();
+        taskManager.startActionBarTask();
         sender.sendMessage(plugin.getLang("configuration-reloaded"));
     }
 
@@ -192,7 +193,7 @@ public class TBCommands extends BaseCommand {
         }
 
         final String dateFormat = plugin.getConfigManager().getDateFormat();
-        sender.sendMessage(MessageFormat.format(plugin.getLang("winners", game),
+        sender.sendMessage(plugin.getLang("winners", game,
                 new SimpleDateFormat(dateFormat).format(updatedDate), name, group, members));
     }
 
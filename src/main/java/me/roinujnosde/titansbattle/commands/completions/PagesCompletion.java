@@ -36,7 +36,7 @@ public class PagesCompletion extends AbstractCompletion {
         int size;
         switch (type) {
             case "warrior":
-                size = getDatabaseManager().getWarriors().size();
+                size = getDatabaseManager().getWarriorsCount();
                 break;
             case "group":
                 size = getDatabaseManager().getGroups().size();
@@ -0,0 +1,143 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects rows to be saved and writes them using JDBC batches inside a single transaction
+ */
+public class BatchWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final SqlDialect dialect;
+    private final Map<String, List<Object[]>> rows = new LinkedHashMap<>();
+
+    public BatchWriter(@NotNull SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Adds a row to be upserted
+     *
+     * @param table  the table
+     * @param values the values, in the order of {@link Table#getColumns()}
+     */
+    public void add(@NotNull Table table, Object... values) {
+        checkSize(table, values);
+        rows.computeIfAbsent(dialect.upsert(table), t -> new ArrayList<>()).add(values);
+    }
+
+    /**
+     * Adds a row whose changed counters are added to the existing ones
+     *
+     * @param table   the table
+     * @param changed the counter columns that changed, the others are not updated
+     * @param values  the values, in the order of {@link Table#getColumns()}, with the counters as deltas
+     */
+    public void addIncrement(@NotNull Table table, @NotNull Set<String> changed, Object... values) {
+        checkSize(table, values);
+        if (changed.isEmpty() || !table.getCounterColumns().containsAll(changed)) {
+            throw new IllegalArgumentException(String.format("invalid counters for %s: %s", table.getName(), changed));
+        }
+        rows.computeIfAbsent(dialect.increment(table, changed), t -> new ArrayList<>()).add(values);
+    }
+
+    /**
+     * Adds a deletion of the rows matching the given columns. Statements run in the order they were first used, so
+     * deleting before adding replaces a set of rows.
+     *
+     * @param table   the table
+     * @param columns the columns to filter by
+     * @param values  the values of the columns
+     */
+    public void delete(@NotNull Table table, @NotNull List<String> columns, Object... values) {
+        if (columns.isEmpty() || columns.size() != values.length) {
+            throw new IllegalArgumentException(String.format("invalid filter for %s: %s", table.getName(), columns));
+        }
+        final String sql = "DELETE FROM " + table.getName() + " WHERE " + String.join(" = ? AND ", columns)
+                + " = ?;";
+        rows.computeIfAbsent(sql, t -> new ArrayList<>()).add(values);
+    }
+
+    private void checkSize(@NotNull Table table, Object @NotNull [] values) {
+        if (values.length != table.getColumns().size()) {
+            throw new IllegalArgumentException(String.format("%s expects %d values, got %d", table.getName(),
+                    table.getColumns().size(), values.length));
+        }
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    /**
+     * Writes all the collected rows. Nothing is written if any of them fails.
+     *
+     * @param connection the connection to use
+     * @return the number of rows written and how long it took
+     * @throws SQLException if the transaction fails, after it is rolled back
+     */
+    public @NotNull FlushResult flush(@NotNull final Connection connection) throws SQLException {
+        final long start = System.nanoTime();
+        final boolean autoCommit = connection.getAutoCommit();
+        int written = 0;
+        connection.setAutoCommit(false);
+        try {
+            for (final Map.Entry<String, List<Object[]>> entry : rows.entrySet()) {
+                written += write(connection, entry.getKey(), entry.getValue());
+            }
+            connection.commit();
+        } catch (final SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return new FlushResult(written, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private int write(@NotNull final Connection connection, @NotNull final String sql,
+                      @NotNull final List<Object[]> tableRows) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (final Object[] row : tableRows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        statement.setNull(i + 1, Types.VARCHAR);
+                    } else {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                }
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+        return tableRows.size();
+    }
+
+    /**
+     * The outcome of a {@link #flush(Connection)}
+     *
+     * @param rows          how many rows were written
+     * @param elapsedMillis how long the transaction took
+     */
+    public record FlushResult(int rows, long elapsedMillis) {
+    }
+}
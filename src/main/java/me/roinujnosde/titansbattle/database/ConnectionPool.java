@@ -0,0 +1,212 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small bounded pool of JDBC connections
+ * <p>
+ * Connections are validated before being handed out, and every statement created through them gets the configured
+ * query timeout. Closing a borrowed connection returns it to the pool.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    public ConnectionPool(@NotNull ConnectionFactory factory, @NotNull Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the connect timeout if all of them are in use
+     *
+     * @return a connection that must be closed to be returned to the pool
+     * @throws SQLException if the pool is closed, the timeout elapses or a new connection cannot be opened
+     */
+    public @NotNull Connection getConnection() throws SQLException {
+        return getConnection(settings.statementTimeoutSeconds());
+    }
+
+    /**
+     * Borrows a connection whose statements get a different query timeout, for long tasks like migrations
+     *
+     * @param statementTimeoutSeconds the query timeout, 0 means no limit
+     * @return a connection that must be closed to be returned to the pool
+     * @throws SQLException if the pool is closed, the timeout elapses or a new connection cannot be opened
+     * @see #getConnection()
+     */
+    public @NotNull Connection getConnection(int statementTimeoutSeconds) throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.connectTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format("Timed out after %d ms waiting for a connection",
+                        settings.connectTimeoutMillis()));
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", ex);
+        }
+        try {
+            return wrap(obtain(), statementTimeoutSeconds);
+        } catch (final SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private @NotNull Connection obtain() throws SQLException {
+        Connection connection;
+        while ((connection = poll()) != null) {
+            if (isValid(connection)) {
+                return connection;
+            }
+            closeQuietly(connection);
+        }
+        return factory.create();
+    }
+
+    private synchronized Connection poll() {
+        return idle.pollFirst();
+    }
+
+    private boolean isValid(@NotNull final Connection connection) {
+        try (final Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(settings.validationTimeoutSeconds());
+            statement.execute(settings.validationQuery());
+            return true;
+        } catch (final SQLException ex) {
+            return false;
+        }
+    }
+
+    private void release(@NotNull final Connection connection) {
+        try {
+            if (!connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (!closed && !connection.isClosed()) {
+                    idle.offerFirst(connection);
+                    return;
+                }
+            }
+            closeQuietly(connection);
+        } catch (final SQLException ex) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private @NotNull Connection wrap(@NotNull final Connection connection, final int statementTimeoutSeconds) {
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class[]{Connection.class}, new PooledHandler(connection, statementTimeoutSeconds));
+    }
+
+    /**
+     * Closes the idle connections. Borrowed ones are closed when they are returned.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(@NotNull final Connection connection) {
+        try {
+            connection.close();
+        } catch (final SQLException ignored) {
+        }
+    }
+
+    private class PooledHandler implements InvocationHandler {
+
+        private final Connection delegate;
+        private final int statementTimeoutSeconds;
+        private boolean returned;
+
+        private PooledHandler(@NotNull Connection delegate, int statementTimeoutSeconds) {
+            this.delegate = delegate;
+            this.statementTimeoutSeconds = statementTimeoutSeconds;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(delegate);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || delegate.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + delegate;
+            }
+            if (returned) {
+                throw new SQLException("The connection was already returned to the pool");
+            }
+            final Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (final InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (result instanceof final Statement statement) {
+                statement.setQueryTimeout(statementTimeoutSeconds);
+            }
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        @NotNull Connection create() throws SQLException;
+    }
+
+    /**
+     * @param maxSize                  how many connections may be open at the same time
+     * @param connectTimeoutMillis     how long to wait for a free connection
+     * @param statementTimeoutSeconds  the query timeout applied to every statement, 0 means no limit
+     * @param validationQuery          the query used to check idle connections before reusing them
+     * @param validationTimeoutSeconds the query timeout of the validation query
+     */
+    public record Settings(int maxSize, long connectTimeoutMillis, int statementTimeoutSeconds,
+                           @NotNull String validationQuery, int validationTimeoutSeconds) {
+
+        public Settings {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be at least 1");
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs database work off the server thread
+ * <p>
+ * Writes go through a single thread, so they are applied in the order they were submitted and never overlap. Reads
+ * run on a separate pool and may run concurrently with each other and with the writer.
+ */
+public class DatabaseExecutor {
+
+    private final ConnectionPool pool;
+    private final ExecutorService writer;
+    private final ExecutorService readers;
+
+    public DatabaseExecutor(@NotNull ConnectionPool pool, int readerThreads) {
+        this.pool = pool;
+        this.writer = Executors.newSingleThreadExecutor(threadFactory("TitansBattle-DB-Writer"));
+        this.readers = Executors.newFixedThreadPool(Math.max(1, readerThreads), threadFactory("TitansBattle-DB-Reader"));
+    }
+
+    public <T> @NotNull CompletableFuture<T> write(@NotNull SqlFunction<T> work) {
+        return submit(writer, work);
+    }
+
+    public <T> @NotNull CompletableFuture<T> read(@NotNull SqlFunction<T> work) {
+        return submit(readers, work);
+    }
+
+    private <T> @NotNull CompletableFuture<T> submit(@NotNull ExecutorService service, @NotNull SqlFunction<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (final Connection connection = pool.getConnection()) {
+                return work.apply(connection);
+            } catch (final SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, service);
+    }
+
+    /**
+     * Stops accepting work and waits for the pending writes to finish
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of the timeout
+     * @return true if all the work finished in time
+     */
+    public boolean shutdown(long timeout, @NotNull TimeUnit unit) {
+        readers.shutdown();
+        writer.shutdown();
+        try {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            final boolean writes = writer.awaitTermination(timeout, unit);
+            final boolean reads = readers.awaitTermination(Math.max(0, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+            if (!reads) {
+                readers.shutdownNow();
+            }
+            return writes && reads;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static @NotNull ThreadFactory threadFactory(@NotNull String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} used to carry failures of the submitted work
+     *
+     * @param throwable the throwable received by a future callback
+     * @return the actual cause
+     */
+    public static @NotNull Throwable unwrap(@NotNull Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    @FunctionalInterface
+    public interface SqlFunction<T> {
+        T apply(@NotNull Connection connection) throws SQLException;
+    }
+}
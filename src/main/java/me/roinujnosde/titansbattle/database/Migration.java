@@ -0,0 +1,23 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A change to the database structure, applied once and recorded in tb_schema_version
+ * <p>
+ * Steps must be safe to run again, as a failure after the step but before it is recorded repeats it on the next start.
+ *
+ * @param version     the version the database is at after this migration, higher than the previous one
+ * @param description what it changes
+ * @param step        applies the change
+ */
+public record Migration(int version, @NotNull String description, @NotNull Step step) {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(@NotNull Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,188 @@
+package me.roinujnosde.titansbattle.database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The migrations of the plugin's tables, from the oldest
+ * <p>
+ * New migrations must be added to the end of {@link #getAll()} with a higher version. Released migrations must not be
+ * changed, as databases that already applied them will not run them again.
+ */
+public class Migrations {
+
+    private final SqlDialect dialect;
+    private final Logger logger;
+
+    public Migrations(@NotNull SqlDialect dialect, @NotNull Logger logger) {
+        this.dialect = dialect;
+        this.logger = logger;
+    }
+
+    public @NotNull List<Migration> getAll() {
+        return List.of(
+                new Migration(1, "create the tables", this::createTables),
+                new Migration(2, "add the unique keys, merging duplicate rows", this::addKeyIndexes),
+                new Migration(3, "add the ranking indexes", this::addRankingIndexes),
+                new Migration(4, "move the winners to the normalized tables", this::normalizeWinners),
+                new Migration(5, "create the journal checkpoint table", this::createJournalTable),
+                new Migration(6, "create the statistics history tables", this::createHistoryTables),
+                new Migration(7, "create the seasons table", this::createSeasonsTable)
+        );
+    }
+
+    private void createTables(@NotNull Connection connection) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_warriors "
+                    + "(displayname varchar(30) NOT NULL,"
+                    + " uuid varchar(255) NOT NULL,"
+                    + " kills int NOT NULL,"
+                    + " deaths int NOT NULL,"
+                    + " victories int NOT NULL,"
+                    + " game varchar(20) NOT NULL);");
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_groups"
+                    + "(identification varchar(255) NOT NULL,"
+                    + " kills int NOT NULL,"
+                    + " deaths int NOT NULL,"
+                    + " victories int NOT NULL,"
+                    + " defeats int NOT NULL,"
+                    + " game varchar(20) NOT NULL);");
+            // dates are stored as yyyy-MM-dd, so they sort correctly as text
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_game_winners"
+                    + "(date varchar(10) NOT NULL,"
+                    + " game varchar(20) NOT NULL,"
+                    + " killer varchar(255),"
+                    + " winner_group varchar(255));");
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_winner_players"
+                    + "(date varchar(10) NOT NULL,"
+                    + " game varchar(20) NOT NULL,"
+                    + " uuid varchar(255) NOT NULL,"
+                    + " position int NOT NULL);");
+        }
+    }
+
+    private void addKeyIndexes(@NotNull Connection connection) throws SQLException {
+        for (final Table table : List.of(Table.WARRIORS, Table.GROUPS, Table.WINNERS, Table.WINNER_PLAYERS)) {
+            final int merged = Schema.ensureKeyIndex(connection, dialect, table);
+            if (merged > 0) {
+                logger.info(String.format("Merged %d duplicate keys in %s", merged, table.getName()));
+            }
+        }
+    }
+
+    private void addRankingIndexes(@NotNull Connection connection) throws SQLException {
+        for (final Table table : List.of(Table.WARRIORS, Table.GROUPS)) {
+            for (final String column : table.getCounterColumns()) {
+                Schema.ensureIndex(connection, dialect, table.getName(), table.getName() + "_" + column, "game",
+                        column);
+            }
+        }
+    }
+
+    /**
+     * Moves the winners from the old table, which had one JSON array of UUIDs per row, to the current ones. The old
+     * table is renamed to tb_winners_old after that.
+     */
+    private void normalizeWinners(@NotNull Connection connection) throws SQLException {
+        for (final Table table : List.of(Table.WINNERS, Table.WINNER_PLAYERS)) {
+            Schema.ensureIndex(connection, dialect, table.getName(), table.getName() + "_game_date", "game", "date");
+        }
+        if (!Schema.hasTable(connection, "tb_winners")) {
+            return;
+        }
+        final DateTimeFormatter oldFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        final Gson gson = new Gson();
+        final BatchWriter writer = new BatchWriter(dialect);
+        int migrated = 0;
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("SELECT * FROM tb_winners;")) {
+            while (rs.next()) {
+                final LocalDate date;
+                try {
+                    date = LocalDate.parse(rs.getString("date"), oldFormat);
+                } catch (final DateTimeParseException ex) {
+                    logger.warning("Skipping winners with an invalid date: " + ex.getMessage());
+                    continue;
+                }
+                final String game = rs.getString("game");
+                writer.add(Table.WINNERS, date.toString(), game, rs.getString("killer"),
+                        rs.getString("winner_group"));
+                final JsonArray players = gson.fromJson(rs.getString("player_winners"), JsonArray.class);
+                if (players != null) {
+                    for (int i = 0; i < players.size(); i++) {
+                        writer.add(Table.WINNER_PLAYERS, date.toString(), game, players.get(i).getAsString(), i);
+                    }
+                }
+                migrated++;
+            }
+        }
+        if (!writer.isEmpty()) {
+            writer.flush(connection);
+        }
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE tb_winners RENAME TO tb_winners_old;");
+        }
+        logger.info(String.format("Migrated %d rows from tb_winners", migrated));
+    }
+
+    private void createJournalTable(@NotNull Connection connection) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_journal"
+                    + "(name varchar(20) NOT NULL,"
+                    + " segment bigint NOT NULL);");
+        }
+        Schema.ensureKeyIndex(connection, dialect, Table.JOURNAL);
+    }
+
+    private void createHistoryTables(@NotNull Connection connection) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            // start is the first day of the bucket, as yyyy-MM-dd
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_warrior_history"
+                    + "(uuid varchar(255) NOT NULL,"
+                    + " game varchar(20) NOT NULL,"
+                    + " bucket varchar(10) NOT NULL,"
+                    + " start varchar(10) NOT NULL,"
+                    + " kills int NOT NULL,"
+                    + " deaths int NOT NULL,"
+                    + " victories int NOT NULL);");
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_group_history"
+                    + "(identification varchar(255) NOT NULL,"
+                    + " game varchar(20) NOT NULL,"
+                    + " bucket varchar(10) NOT NULL,"
+                    + " start varchar(10) NOT NULL,"
+                    + " kills int NOT NULL,"
+                    + " deaths int NOT NULL,"
+                    + " victories int NOT NULL,"
+                    + " defeats int NOT NULL);");
+        }
+        for (final Table table : List.of(Table.WARRIOR_HISTORY, Table.GROUP_HISTORY)) {
+            Schema.ensureKeyIndex(connection, dialect, table);
+            Schema.ensureIndex(connection, dialect, table.getName(), table.getName() + "_game_start", "game",
+                    "start");
+            Schema.ensureIndex(connection, dialect, table.getName(), table.getName() + "_bucket_start", "bucket",
+                    "start");
+        }
+    }
+
+    private void createSeasonsTable(@NotNull Connection connection) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            // the totals of each season are in tb_season_<id>, complete is 0 while they are being archived
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_seasons"
+                    + "(id int NOT NULL,"
+                    + " archived_at bigint NOT NULL,"
+                    + " complete int NOT NULL);");
+        }
+        Schema.ensureKeyIndex(connection, dialect, Table.SEASONS);
+    }
+}
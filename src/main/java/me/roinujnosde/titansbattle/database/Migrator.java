@@ -0,0 +1,83 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Applies the pending {@link Migration}s in order, recording each one in tb_schema_version
+ */
+public class Migrator {
+
+    private final ConnectionPool pool;
+    private final Logger logger;
+
+    public Migrator(@NotNull ConnectionPool pool, @NotNull Logger logger) {
+        this.pool = pool;
+        this.logger = logger;
+    }
+
+    /**
+     * Applies the migrations newer than the current version. It stops at the first failure, so the next ones run
+     * only after it succeeds.
+     *
+     * @param migrations the migrations
+     * @return the version of the database after migrating
+     * @throws SQLException if a migration fails
+     */
+    public int migrate(@NotNull List<Migration> migrations) throws SQLException {
+        int current = getVersion();
+        final List<Migration> sorted = migrations.stream().sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+        for (final Migration migration : sorted) {
+            if (migration.version() <= current) {
+                continue;
+            }
+            logger.info(String.format("Updating the database to version %d: %s", migration.version(),
+                    migration.description()));
+            final long start = System.currentTimeMillis();
+            // indexing a large table may take longer than the usual query timeout
+            try (final Connection connection = pool.getConnection(0)) {
+                migration.step().apply(connection);
+                record(connection, migration);
+            }
+            current = migration.version();
+            logger.info(String.format("Database updated to version %d in %d ms", current,
+                    System.currentTimeMillis() - start));
+        }
+        return current;
+    }
+
+    /**
+     * @return the latest applied version, or 0 if none was applied
+     * @throws SQLException if the version table could not be read or created
+     */
+    public int getVersion() throws SQLException {
+        try (final Connection connection = pool.getConnection(); final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS tb_schema_version"
+                    + "(version int NOT NULL,"
+                    + " description varchar(255) NOT NULL,"
+                    + " applied_at bigint NOT NULL);");
+            try (final ResultSet rs = statement.executeQuery("SELECT MAX(version) FROM tb_schema_version;")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void record(@NotNull Connection connection, @NotNull Migration migration) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO tb_schema_version (version, description, applied_at) VALUES (?, ?, ?);")) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setLong(3, System.currentTimeMillis());
+            statement.executeUpdate();
+        }
+    }
+}
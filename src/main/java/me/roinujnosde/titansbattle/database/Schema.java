@@ -0,0 +1,193 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers to inspect and fix the structure of the plugin's tables
+ */
+public final class Schema {
+
+    private static final int MERGE_CHUNK_SIZE = 500;
+
+    private Schema() {
+    }
+
+    /**
+     * Creates the unique index on the key columns of the table, merging duplicate rows first
+     *
+     * @param connection the connection
+     * @param dialect    the SQL dialect
+     * @param table      the table
+     * @return how many duplicate keys were merged
+     * @throws SQLException if the index could not be created
+     */
+    public static int ensureKeyIndex(@NotNull final Connection connection, @NotNull final SqlDialect dialect,
+                                     @NotNull final Table table) throws SQLException {
+        if (hasIndex(connection, table.getName(), table.getKeyIndex())) {
+            return 0;
+        }
+        final int merged = mergeDuplicates(connection, table);
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(dialect.createIndex(table.getName(), table.getKeyIndex(), true,
+                    table.getKeyColumns()));
+        }
+        return merged;
+    }
+
+    /**
+     * Creates an index if it does not exist
+     *
+     * @param connection the connection
+     * @param dialect    the SQL dialect
+     * @param table      the table
+     * @param index      the name of the index
+     * @param columns    the indexed columns
+     * @return true if the index was created
+     * @throws SQLException if the index could not be created
+     */
+    public static boolean ensureIndex(@NotNull final Connection connection, @NotNull final SqlDialect dialect,
+                                      @NotNull final String table, @NotNull final String index,
+                                      @NotNull final String... columns) throws SQLException {
+        if (hasIndex(connection, table, index)) {
+            return false;
+        }
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(dialect.createIndex(table, index, false, List.of(columns)));
+        }
+        return true;
+    }
+
+    public static boolean hasTable(@NotNull final Connection connection, @NotNull final String table)
+            throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        try (final ResultSet rs = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    public static boolean hasPrimaryKey(@NotNull final Connection connection, @NotNull final String table)
+            throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        try (final ResultSet rs = metaData.getPrimaryKeys(connection.getCatalog(), null, table)) {
+            return rs.next();
+        }
+    }
+
+    public static boolean hasIndex(@NotNull final Connection connection, @NotNull final String table,
+                                   @NotNull final String index) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        try (final ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces every group of rows sharing the same key by a single row holding the highest value of each column
+     * <p>
+     * The keys are merged in small transactions, so the table is never locked for long. If it fails, the keys merged
+     * by the previous transactions stay merged and it can simply run again.
+     *
+     * @param connection the connection
+     * @param table      the table
+     * @return how many keys had duplicates
+     * @throws SQLException if the merge fails, after the current transaction is rolled back
+     */
+    public static int mergeDuplicates(@NotNull final Connection connection, @NotNull final Table table)
+            throws SQLException {
+        return mergeDuplicates(connection, table.getName(), table.getKeyColumns(), table.getValueColumns());
+    }
+
+    /**
+     * Like {@link #mergeDuplicates(Connection, Table)}, for tables that are not in {@link Table}
+     *
+     * @param connection   the connection
+     * @param table        the name of the table
+     * @param keys         the columns of its key
+     * @param valueColumns the other columns
+     * @return how many keys had duplicates
+     * @throws SQLException if the merge fails, after the current transaction is rolled back
+     */
+    public static int mergeDuplicates(@NotNull final Connection connection, @NotNull final String table,
+                                      @NotNull final List<String> keys, @NotNull final List<String> valueColumns)
+            throws SQLException {
+        final List<String> columns = new ArrayList<>(keys);
+        columns.addAll(valueColumns);
+        final String keyList = String.join(", ", keys);
+        final String keyFilter = keys.stream().map(k -> k + " = ?").collect(Collectors.joining(" AND "));
+
+        final List<Object[]> duplicates = new ArrayList<>();
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("SELECT " + keyList + " FROM " + table
+                     + " GROUP BY " + keyList + " HAVING COUNT(*) > 1;")) {
+            while (rs.next()) {
+                final Object[] key = new Object[keys.size()];
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = rs.getObject(i + 1);
+                }
+                duplicates.add(key);
+            }
+        }
+        if (duplicates.isEmpty()) {
+            return 0;
+        }
+
+        final String select = "SELECT " + valueColumns.stream().map(c -> "MAX(" + c + ")")
+                .collect(Collectors.joining(", ")) + " FROM " + table + " WHERE " + keyFilter + ";";
+        final String delete = "DELETE FROM " + table + " WHERE " + keyFilter + ";";
+        final String insert = "INSERT INTO " + table + " (" + String.join(", ", columns)
+                + ") VALUES (" + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ");";
+
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (final PreparedStatement selectStatement = connection.prepareStatement(select);
+             final PreparedStatement deleteStatement = connection.prepareStatement(delete);
+             final PreparedStatement insertStatement = connection.prepareStatement(insert)) {
+            int pending = 0;
+            for (final Object[] key : duplicates) {
+                final Object[] values = new Object[valueColumns.size()];
+                for (int i = 0; i < key.length; i++) {
+                    selectStatement.setObject(i + 1, key[i]);
+                    deleteStatement.setObject(i + 1, key[i]);
+                    insertStatement.setObject(i + 1, key[i]);
+                }
+                try (final ResultSet rs = selectStatement.executeQuery()) {
+                    rs.next();
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                }
+                deleteStatement.executeUpdate();
+                for (int i = 0; i < values.length; i++) {
+                    insertStatement.setObject(key.length + i + 1, values[i]);
+                }
+                insertStatement.executeUpdate();
+                if (++pending == MERGE_CHUNK_SIZE) {
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            connection.commit();
+        } catch (final SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return duplicates.size();
+    }
+}
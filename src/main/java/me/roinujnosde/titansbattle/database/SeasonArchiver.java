@@ -0,0 +1,285 @@
+package me.roinujnosde.titansbattle.database;
+
+import me.roinujnosde.titansbattle.ranking.RankingEntry;
+import me.roinujnosde.titansbattle.types.Counter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Ends a season by copying the totals to the tb_season_&lt;id&gt; table and resetting them
+ * <p>
+ * Rows are copied and reset in small transactions, so other connections are never locked out for long. A row is
+ * copied and reset in the same transaction, so an interrupted archive can simply run again.
+ */
+public class SeasonArchiver {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final List<String> COUNTERS = List.of("kills", "deaths", "victories", "defeats");
+    private static final List<String> KEY_COLUMNS = List.of("kind", "id", "game");
+    private static final List<String> VALUE_COLUMNS = List.of("displayname", "kills", "deaths", "victories",
+            "defeats");
+
+    private final SqlDialect dialect;
+
+    public SeasonArchiver(@NotNull SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * @param connection the connection
+     * @return the id of a season whose archive was interrupted, or 0 if there is none
+     * @throws SQLException if the query fails
+     */
+    public int getUnfinished(@NotNull Connection connection) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("SELECT id FROM tb_seasons WHERE complete = 0;")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * @param connection the connection
+     * @return the ids of the archived seasons, from the oldest
+     * @throws SQLException if the query fails
+     */
+    public @NotNull List<Integer> getSeasons(@NotNull Connection connection) throws SQLException {
+        final List<Integer> seasons = new ArrayList<>();
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("SELECT id FROM tb_seasons WHERE complete = 1 ORDER BY id;")) {
+            while (rs.next()) {
+                seasons.add(rs.getInt(1));
+            }
+        }
+        return seasons;
+    }
+
+    /**
+     * Archives the current totals as a new season
+     *
+     * @param connection the connection
+     * @return the id of the archived season
+     * @throws SQLException if it fails, the archive must then run again with {@link #archive(Connection, int)}
+     */
+    public int archiveNext(@NotNull Connection connection) throws SQLException {
+        final int season;
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("SELECT MAX(id) FROM tb_seasons;")) {
+            season = (rs.next() ? rs.getInt(1) : 0) + 1;
+        }
+        archive(connection, season);
+        return season;
+    }
+
+    /**
+     * Archives the current totals in the given season, resuming it if it was interrupted
+     *
+     * @param connection the connection
+     * @param season     the season
+     * @return how many rows were archived
+     * @throws SQLException if it fails
+     */
+    public int archive(@NotNull Connection connection, int season) throws SQLException {
+        final String table = getTable(season);
+        setComplete(connection, season, false);
+        createTable(connection, table);
+        Schema.ensureIndex(connection, dialect, table, table + "_kind_game", "kind", "game");
+        int archived = 0;
+        for (final Kind kind : Kind.values()) {
+            int copied;
+            String[] after = {"", ""};
+            do {
+                final List<Object[]> rows = readChunk(connection, kind, after);
+                copied = rows.size();
+                if (copied > 0) {
+                    writeChunk(connection, table, kind, rows);
+                    final Object[] last = rows.get(copied - 1);
+                    after = new String[]{(String) last[0], (String) last[1]};
+                }
+                archived += copied;
+            } while (copied == CHUNK_SIZE);
+        }
+        setComplete(connection, season, true);
+        return archived;
+    }
+
+    /**
+     * Gets a page of an archived season
+     *
+     * @param connection the connection
+     * @param season     the season
+     * @param kind       players or groups
+     * @param game       the game
+     * @param order      the counter to sort by, ties are sorted by victories
+     * @param offset     how many entries to skip
+     * @param limit      the maximum number of entries
+     * @param filter     the ids to include, or null to include all; the others are skipped before the offset
+     * @return the entries by UUID or group id, sorted, named with the player's name or the group's id
+     * @throws SQLException if the query fails, for example because the season does not exist
+     */
+    public @NotNull Map<String, RankingEntry> getRanking(@NotNull Connection connection, int season,
+                                                         @NotNull Kind kind, @NotNull String game,
+                                                         @NotNull Counter order, int offset, int limit,
+                                                         @Nullable Predicate<String> filter) throws SQLException {
+        final String sql = "SELECT id, displayname, kills, deaths, victories, defeats FROM " + getTable(season)
+                + " WHERE kind = ? AND game = ? ORDER BY " + order.getColumn() + " DESC, victories DESC"
+                + (filter == null ? " LIMIT ? OFFSET ?;" : ";");
+        final Map<String, RankingEntry> entries = new LinkedHashMap<>();
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, kind.getName());
+            statement.setString(2, game);
+            if (filter == null) {
+                statement.setInt(3, limit);
+                statement.setInt(4, offset);
+            }
+            int skipped = 0;
+            try (final ResultSet rs = statement.executeQuery()) {
+                while (rs.next() && entries.size() < limit) {
+                    final String id = rs.getString("id");
+                    if (filter != null && (!filter.test(id) || skipped++ < offset)) {
+                        continue;
+                    }
+                    final String name = rs.getString("displayname");
+                    entries.put(id, new RankingEntry(name != null ? name : id, rs.getInt("victories"),
+                            rs.getInt("kills"), rs.getInt("deaths"), rs.getInt("defeats")));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void createTable(@NotNull Connection connection, @NotNull String table) throws SQLException {
+        if (Schema.hasTable(connection, table)) {
+            // created without a key by older versions, so a resumed archive could copy a row twice
+            final String index = table + "_key";
+            if (!Schema.hasPrimaryKey(connection, table) && !Schema.hasIndex(connection, table, index)) {
+                Schema.mergeDuplicates(connection, table, KEY_COLUMNS, VALUE_COLUMNS);
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute(dialect.createIndex(table, index, true, KEY_COLUMNS));
+                }
+            }
+            return;
+        }
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table
+                    + "(kind varchar(10) NOT NULL,"
+                    + " id varchar(255) NOT NULL,"
+                    + " game varchar(20) NOT NULL,"
+                    + " displayname varchar(30),"
+                    + " kills int NOT NULL,"
+                    + " deaths int NOT NULL,"
+                    + " victories int NOT NULL,"
+                    + " defeats int NOT NULL,"
+                    + " PRIMARY KEY (kind, id, game));");
+        }
+    }
+
+    private @NotNull List<Object[]> readChunk(@NotNull Connection connection, @NotNull Kind kind,
+                                              @NotNull String @NotNull [] after) throws SQLException {
+        final String id = kind.table.getKeyColumns().get(0);
+        final List<String> counters = List.copyOf(kind.table.getCounterColumns());
+        final String sql = "SELECT " + id + ", game, " + kind.displayName + ", " + String.join(", ", counters)
+                + " FROM " + kind.table.getName() + " WHERE (" + id + " > ? OR (" + id + " = ? AND game > ?)) AND ("
+                + String.join(" <> 0 OR ", counters) + " <> 0) ORDER BY " + id + ", game LIMIT " + CHUNK_SIZE + ";";
+        final List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, after[0]);
+            statement.setString(2, after[0]);
+            statement.setString(3, after[1]);
+            try (final ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    final Object[] row = new Object[3 + COUNTERS.size()];
+                    row[0] = rs.getString(1);
+                    row[1] = rs.getString(2);
+                    row[2] = rs.getString(3);
+                    for (int i = 0; i < COUNTERS.size(); i++) {
+                        final String counter = COUNTERS.get(i);
+                        // players have no defeats
+                        row[3 + i] = counters.contains(counter) ? rs.getInt(counter) : 0;
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void writeChunk(@NotNull Connection connection, @NotNull String table, @NotNull Kind kind,
+                            @NotNull List<Object[]> rows) throws SQLException {
+        final String id = kind.table.getKeyColumns().get(0);
+        final String reset = "UPDATE " + kind.table.getName() + " SET " + String.join(" = 0, ",
+                kind.table.getCounterColumns()) + " = 0 WHERE " + id + " = ? AND game = ?;";
+        // a row copied again replaces the previous copy
+        final String insert = dialect.upsert(table, KEY_COLUMNS, VALUE_COLUMNS);
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (final PreparedStatement insertStatement = connection.prepareStatement(insert);
+             final PreparedStatement resetStatement = connection.prepareStatement(reset)) {
+            for (final Object[] row : rows) {
+                insertStatement.setString(1, kind.getName());
+                for (int i = 0; i < row.length; i++) {
+                    insertStatement.setObject(i + 2, row[i]);
+                }
+                insertStatement.addBatch();
+                resetStatement.setString(1, (String) row[0]);
+                resetStatement.setString(2, (String) row[1]);
+                resetStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+            resetStatement.executeBatch();
+            connection.commit();
+        } catch (final SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void setComplete(@NotNull Connection connection, int season, boolean complete) throws SQLException {
+        final BatchWriter writer = new BatchWriter(dialect);
+        writer.add(Table.SEASONS, season, System.currentTimeMillis(), complete ? 1 : 0);
+        writer.flush(connection);
+    }
+
+    private static @NotNull String getTable(int season) {
+        if (season < 1) {
+            throw new IllegalArgumentException("invalid season: " + season);
+        }
+        return "tb_season_" + season;
+    }
+
+    /**
+     * What an archived row holds
+     */
+    public enum Kind {
+        WARRIOR(Table.WARRIORS, "displayname"),
+        GROUP(Table.GROUPS, "NULL");
+
+        private final Table table;
+        private final String displayName;
+
+        Kind(@NotNull Table table, @NotNull String displayName) {
+            this.table = table;
+            this.displayName = displayName;
+        }
+
+        /**
+         * @return the value of the kind column
+         */
+        public @NotNull String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
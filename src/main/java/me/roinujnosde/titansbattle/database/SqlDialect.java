@@ -0,0 +1,127 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The SQL flavours supported by the plugin
+ */
+public enum SqlDialect {
+
+    MYSQL {
+        @Override
+        protected @NotNull String onConflict(@NotNull List<String> keyColumns) {
+            return " ON DUPLICATE KEY UPDATE ";
+        }
+
+        @Override
+        protected @NotNull String inserted(@NotNull String column) {
+            return "VALUES(" + column + ")";
+        }
+
+        @Override
+        protected @NotNull String indexOptions() {
+            // builds the index while the table is still readable and writable
+            return " ALGORITHM=INPLACE LOCK=NONE";
+        }
+    },
+    SQLITE {
+        @Override
+        protected @NotNull String onConflict(@NotNull List<String> keyColumns) {
+            return " ON CONFLICT (" + String.join(", ", keyColumns) + ") DO UPDATE SET ";
+        }
+
+        @Override
+        protected @NotNull String inserted(@NotNull String column) {
+            return "excluded." + column;
+        }
+    };
+
+    /**
+     * Builds an INSERT statement that replaces the values of the existing row when the key columns conflict
+     *
+     * @param table the table
+     * @return the upsert SQL, its parameters follow {@link Table#getColumns()}
+     */
+    public @NotNull String upsert(@NotNull Table table) {
+        return upsert(table.getName(), table.getKeyColumns(), table.getValueColumns());
+    }
+
+    /**
+     * Builds an INSERT statement that replaces the values of the existing row when the key columns conflict, for
+     * tables that are not in {@link Table}
+     *
+     * @param table        the name of the table
+     * @param keyColumns   the columns of its unique key
+     * @param valueColumns the other columns
+     * @return the upsert SQL, its parameters are the key columns followed by the value columns
+     */
+    public @NotNull String upsert(@NotNull String table, @NotNull List<String> keyColumns,
+                                  @NotNull List<String> valueColumns) {
+        final List<String> assignments = new ArrayList<>();
+        for (final String column : valueColumns) {
+            assignments.add(column + " = " + inserted(column));
+        }
+        return build(table, keyColumns, valueColumns, assignments);
+    }
+
+    /**
+     * Builds an INSERT statement that adds the given counters to the existing row when the key columns conflict.
+     * The other counters are left untouched, and the remaining value columns are replaced.
+     *
+     * @param table   the table
+     * @param changed the counter columns to add
+     * @return the upsert SQL, its parameters follow {@link Table#getColumns()} with the counters as deltas
+     */
+    public @NotNull String increment(@NotNull Table table, @NotNull Set<String> changed) {
+        final List<String> assignments = new ArrayList<>();
+        for (final String column : table.getValueColumns()) {
+            if (!table.getCounterColumns().contains(column)) {
+                assignments.add(column + " = " + inserted(column));
+            } else if (changed.contains(column)) {
+                assignments.add(column + " = " + column + " + " + inserted(column));
+            }
+        }
+        return build(table.getName(), table.getKeyColumns(), table.getValueColumns(), assignments);
+    }
+
+    /**
+     * Builds a CREATE INDEX statement
+     *
+     * @param table   the table
+     * @param index   the name of the index
+     * @param unique  if the index is unique
+     * @param columns the indexed columns
+     * @return the SQL
+     */
+    public @NotNull String createIndex(@NotNull String table, @NotNull String index, boolean unique,
+                                       @NotNull List<String> columns) {
+        return "CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + index + " ON " + table + " ("
+                + String.join(", ", columns) + ")" + indexOptions() + ";";
+    }
+
+    private @NotNull String build(@NotNull String table, @NotNull List<String> keyColumns,
+                                  @NotNull List<String> valueColumns, @NotNull List<String> assignments) {
+        final List<String> columns = new ArrayList<>(keyColumns);
+        columns.addAll(valueColumns);
+        final String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")"
+                + onConflict(keyColumns) + String.join(", ", assignments) + ";";
+    }
+
+    protected @NotNull String indexOptions() {
+        return "";
+    }
+
+    protected abstract @NotNull String onConflict(@NotNull List<String> keyColumns);
+
+    /**
+     * @param column the column
+     * @return the expression that refers to the value that was going to be inserted
+     */
+    protected abstract @NotNull String inserted(@NotNull String column);
+}
@@ -0,0 +1,83 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Measures how many small auto-committed statements per second SQLite runs with two sets of settings, like the
+ * saves of a single player. It uses a separate database file, which is deleted after each run.
+ */
+public class SqliteBenchmark {
+
+    // the rows updated, so most statements update like the saves do
+    private static final int ROWS = 100;
+
+    private final File file;
+
+    public SqliteBenchmark(@NotNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * @param before     the settings to compare against
+     * @param after      the settings being measured
+     * @param statements how many statements to run with each one
+     * @return the results
+     * @throws SQLException if the benchmark database could not be used
+     */
+    public @NotNull Result run(@NotNull Properties before, @NotNull Properties after, int statements)
+            throws SQLException {
+        return new Result(statements, measure(before, statements), measure(after, statements));
+    }
+
+    private double measure(@NotNull Properties properties, int statements) throws SQLException {
+        deleteFiles();
+        try (final Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath(),
+                properties)) {
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE benchmark (id int PRIMARY KEY, value int NOT NULL);");
+            }
+            final long start = System.nanoTime();
+            try (final PreparedStatement statement = connection.prepareStatement("INSERT INTO benchmark (id, value) "
+                    + "VALUES (?, 1) ON CONFLICT (id) DO UPDATE SET value = value + 1;")) {
+                for (int i = 0; i < statements; i++) {
+                    statement.setInt(1, i % ROWS);
+                    statement.executeUpdate();
+                }
+            }
+            final long elapsed = Math.max(1, System.nanoTime() - start);
+            return statements * 1_000_000_000D / elapsed;
+        } finally {
+            deleteFiles();
+        }
+    }
+
+    private void deleteFiles() {
+        for (final String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            //noinspection ResultOfMethodCallIgnored
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+
+    /**
+     * @param statements      how many statements ran with each set of settings
+     * @param beforePerSecond statements per second with the first settings
+     * @param afterPerSecond  statements per second with the second settings
+     */
+    public record Result(int statements, double beforePerSecond, double afterPerSecond) {
+
+        /**
+         * @return how many times faster the second settings were
+         */
+        public double getSpeedup() {
+            return afterPerSecond / beforePerSecond;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The statistics gained in each period, kept besides the totals so rankings can be limited to the last days
+ * <p>
+ * Changes are added to the bucket of the day they are saved. Old days are merged into weeks, and old weeks into
+ * months, so the tables don't grow forever. Merged periods can only be selected as a whole.
+ */
+public class StatHistory {
+
+    private final SqlDialect dialect;
+
+    public StatHistory(@NotNull SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * Merges the days older than dailyDays into weeks, and the weeks older than weeklyDays into months
+     *
+     * @param connection the connection
+     * @param table      {@link Table#WARRIOR_HISTORY} or {@link Table#GROUP_HISTORY}
+     * @param today      the current date
+     * @param dailyDays  for how many days the daily buckets are kept
+     * @param weeklyDays for how many days the weekly buckets are kept
+     * @return how many buckets were merged
+     * @throws SQLException if the merge fails, after it is rolled back
+     */
+    public int compact(@NotNull Connection connection, @NotNull Table table, @NotNull LocalDate today,
+                       int dailyDays, int weeklyDays) throws SQLException {
+        final List<String> keys = table.getKeyColumns();
+        final List<String> counters = table.getValueColumns();
+        final String sql = "SELECT " + String.join(", ", table.getColumns()) + " FROM " + table.getName()
+                + " WHERE (bucket = ? AND start < ?) OR (bucket = ? AND start < ?);";
+        final BatchWriter writer = new BatchWriter(dialect);
+        int merged = 0;
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, Bucket.DAY.getName());
+            statement.setString(2, today.minusDays(dailyDays).toString());
+            statement.setString(3, Bucket.WEEK.getName());
+            statement.setString(4, today.minusDays(weeklyDays).toString());
+            try (final ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    final String id = rs.getString(keys.get(0));
+                    final String game = rs.getString("game");
+                    final String bucket = rs.getString("bucket");
+                    final String start = rs.getString("start");
+                    final Bucket next = Bucket.DAY.getName().equals(bucket) ? Bucket.WEEK : Bucket.MONTH;
+                    final List<Object> row = new ArrayList<>(List.of(id, game, next.getName(),
+                            next.getStart(LocalDate.parse(start)).toString()));
+                    for (final String counter : counters) {
+                        row.add(rs.getInt(counter));
+                    }
+                    writer.delete(table, keys, id, game, bucket, start);
+                    writer.addIncrement(table, new HashSet<>(counters), row.toArray());
+                    merged++;
+                }
+            }
+        }
+        if (!writer.isEmpty()) {
+            writer.flush(connection);
+        }
+        return merged;
+    }
+
+    /**
+     * The periods covered by a row of the history
+     */
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        /**
+         * @return the value of the bucket column
+         */
+        public @NotNull String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @param date a date
+         * @return the first day of the period that contains the date
+         */
+        public @NotNull LocalDate getStart(@NotNull LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+    }
+}
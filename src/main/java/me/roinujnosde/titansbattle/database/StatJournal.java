@@ -0,0 +1,366 @@
+package me.roinujnosde.titansbattle.database;
+
+import me.roinujnosde.titansbattle.types.Counter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the statistics changes that were not saved to the database yet
+ * <p>
+ * Appending only copies the record to a buffer. A background thread writes the buffer and syncs it to the disk
+ * periodically, so many changes share a single sync. The log is split in numbered segments: before saving, the
+ * current segment is closed with {@link #rotate()}, and the save stores its number in the same transaction, so a
+ * segment is never applied twice. Segments covered by a save are then deleted.
+ */
+public class StatJournal implements AutoCloseable {
+
+    private static final String EXTENSION = ".journal";
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final byte WARRIOR = 1;
+    private static final byte GROUP = 2;
+    private static final byte WINNERS = 3;
+
+    private final File directory;
+    private final Logger logger;
+    private final Object bufferLock = new Object();
+    private final Object channelLock = new Object();
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private @Nullable ScheduledExecutorService flusher;
+    private @Nullable FileChannel channel;
+    private long segment;
+    private boolean appended;
+
+    public StatJournal(@NotNull File directory, @NotNull Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads the segments newer than the checkpoint, stopping at the first damaged record of each one
+     *
+     * @param checkpoint the last segment already saved to the database
+     * @param handler    receives the records, in the order they were appended
+     * @return the last segment read, or the checkpoint if there was none
+     * @throws IOException if a segment could not be read
+     */
+    public long recover(long checkpoint, @NotNull Handler handler) throws IOException {
+        long last = checkpoint;
+        for (final Map.Entry<Long, File> entry : getSegments().entrySet()) {
+            if (entry.getKey() <= checkpoint) {
+                continue;
+            }
+            try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(entry.getValue())))) {
+                while (readRecord(in, handler)) {
+                    // reads until the end or a damaged record
+                }
+            }
+            last = entry.getKey();
+        }
+        return last;
+    }
+
+    /**
+     * Deletes the segments up to the given one and starts appending to a new segment
+     *
+     * @param last          the last segment that was saved or recovered
+     * @param flushInterval how often the appended records are written and synced, in milliseconds
+     * @throws IOException if the new segment could not be created
+     */
+    public void open(long last, long flushInterval) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        delete(last);
+        synchronized (channelLock) {
+            segment = last;
+            openNext();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "TitansBattle-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void appendWarrior(@NotNull UUID uuid, @NotNull String name, @NotNull String game,
+                              @NotNull Counter counter, int delta) {
+        append(out -> {
+            out.writeByte(WARRIOR);
+            out.writeUTF(uuid.toString());
+            out.writeUTF(name);
+            out.writeUTF(game);
+            out.writeByte(counter.ordinal());
+            out.writeInt(delta);
+        });
+    }
+
+    public void appendGroup(@NotNull String id, @NotNull String game, @NotNull Counter counter, int delta) {
+        append(out -> {
+            out.writeByte(GROUP);
+            out.writeUTF(id);
+            out.writeUTF(game);
+            out.writeByte(counter.ordinal());
+            out.writeInt(delta);
+        });
+    }
+
+    public void appendWinners(@NotNull LocalDate date, @NotNull String game, @Nullable UUID killer,
+                              @Nullable String group, @Nullable List<UUID> players) {
+        append(out -> {
+            out.writeByte(WINNERS);
+            out.writeUTF(date.toString());
+            out.writeUTF(game);
+            out.writeUTF(killer != null ? killer.toString() : "");
+            out.writeUTF(group != null ? group : "");
+            final List<UUID> list = players != null ? players : List.of();
+            out.writeInt(list.size());
+            for (final UUID player : list) {
+                out.writeUTF(player.toString());
+            }
+        });
+    }
+
+    /**
+     * Closes the current segment, so the records appended until now can be saved, and starts a new one
+     *
+     * @return the closed segment, which must be stored with the save, or 0 if nothing was appended to it
+     * @throws IOException if the segment could not be written
+     */
+    public long rotate() throws IOException {
+        synchronized (channelLock) {
+            if (channel == null) {
+                throw new IOException("The journal is not open");
+            }
+            synchronized (bufferLock) {
+                if (!appended) {
+                    return 0;
+                }
+                appended = false;
+            }
+            writePending(channel);
+            channel.force(false);
+            channel.close();
+            final long closed = segment;
+            openNext();
+            return closed;
+        }
+    }
+
+    /**
+     * Deletes the segments that were saved to the database
+     *
+     * @param last the last saved segment
+     */
+    public void delete(long last) {
+        for (final Map.Entry<Long, File> entry : getSegments().entrySet()) {
+            if (entry.getKey() <= last && !entry.getValue().delete()) {
+                logger.warning("Could not delete " + entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes and syncs the pending records, keeping the segments for the next start
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (channelLock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                writePending(channel);
+                channel.force(false);
+                channel.close();
+            } catch (final IOException ex) {
+                logger.log(Level.SEVERE, "Error while closing the journal", ex);
+            }
+            channel = null;
+        }
+    }
+
+    private void append(@NotNull RecordWriter writer) {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        try (final DataOutputStream out = new DataOutputStream(payload)) {
+            writer.write(out);
+        } catch (final IOException ex) {
+            // writing to memory does not fail
+            throw new IllegalStateException(ex);
+        }
+        final byte[] bytes = payload.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        synchronized (bufferLock) {
+            writeInt(buffer, bytes.length);
+            writeInt(buffer, (int) crc.getValue());
+            buffer.writeBytes(bytes);
+            appended = true;
+        }
+    }
+
+    private void flushQuietly() {
+        synchronized (channelLock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                if (writePending(channel)) {
+                    channel.force(false);
+                }
+            } catch (final IOException ex) {
+                logger.log(Level.SEVERE, "Error while writing the journal", ex);
+            }
+        }
+    }
+
+    /**
+     * @return true if there was something to write
+     */
+    private boolean writePending(@NotNull FileChannel channel) throws IOException {
+        final ByteArrayOutputStream pending;
+        synchronized (bufferLock) {
+            if (buffer.size() == 0) {
+                return false;
+            }
+            pending = buffer;
+            buffer = new ByteArrayOutputStream();
+        }
+        final ByteBuffer bytes = ByteBuffer.wrap(pending.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        return true;
+    }
+
+    private void openNext() throws IOException {
+        segment++;
+        channel = FileChannel.open(getFile(segment).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private boolean readRecord(@NotNull DataInputStream in, @NotNull Handler handler) throws IOException {
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (final EOFException ex) {
+            return false;
+        }
+        try {
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                throw new IOException("invalid record length " + length);
+            }
+            final int expected = in.readInt();
+            final byte[] bytes = in.readNBytes(length);
+            final CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if (bytes.length != length || (int) crc.getValue() != expected) {
+                throw new IOException("damaged record");
+            }
+            dispatch(new DataInputStream(new ByteArrayInputStream(bytes)), handler);
+            return true;
+        } catch (final IOException | RuntimeException ex) {
+            // the server probably stopped while the record was being written
+            logger.warning("Ignoring the rest of a journal segment: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void dispatch(@NotNull DataInputStream in, @NotNull Handler handler) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case WARRIOR -> handler.warrior(UUID.fromString(in.readUTF()), in.readUTF(), in.readUTF(),
+                    Counter.values()[in.readByte()], in.readInt());
+            case GROUP -> handler.group(in.readUTF(), in.readUTF(), Counter.values()[in.readByte()], in.readInt());
+            case WINNERS -> {
+                final LocalDate date = LocalDate.parse(in.readUTF());
+                final String game = in.readUTF();
+                final String killer = in.readUTF();
+                final String group = in.readUTF();
+                final int size = in.readInt();
+                final List<UUID> players = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    players.add(UUID.fromString(in.readUTF()));
+                }
+                handler.winners(date, game, killer.isEmpty() ? null : UUID.fromString(killer),
+                        group.isEmpty() ? null : group, players);
+            }
+            default -> throw new IOException("unknown record type " + type);
+        }
+    }
+
+    private @NotNull TreeMap<Long, File> getSegments() {
+        final TreeMap<Long, File> segments = new TreeMap<>();
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) {
+            return segments;
+        }
+        for (final File file : files) {
+            final String name = file.getName();
+            try {
+                segments.put(Long.parseLong(name.substring(0, name.length() - EXTENSION.length())), file);
+            } catch (final NumberFormatException ignored) {
+            }
+        }
+        return segments;
+    }
+
+    private @NotNull File getFile(long segment) {
+        return new File(directory, String.format("%019d%s", segment, EXTENSION));
+    }
+
+    private static void writeInt(@NotNull ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(@NotNull DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Receives the records read by {@link #recover(long, Handler)}
+     */
+    public interface Handler {
+
+        void warrior(@NotNull UUID uuid, @NotNull String name, @NotNull String game, @NotNull Counter counter,
+                     int delta);
+
+        void group(@NotNull String id, @NotNull String game, @NotNull Counter counter, int delta);
+
+        void winners(@NotNull LocalDate date, @NotNull String game, @Nullable UUID killer, @Nullable String group,
+                     @NotNull List<UUID> players);
+    }
+}
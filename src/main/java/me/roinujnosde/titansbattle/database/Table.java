@@ -0,0 +1,77 @@
+package me.roinujnosde.titansbattle.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The tables used by the plugin, with the columns that make up their unique keys
+ */
+public enum Table {
+
+    WARRIORS("tb_warriors", List.of("uuid", "game"), List.of("displayname", "kills", "deaths", "victories"),
+            Set.of("kills", "deaths", "victories")),
+    GROUPS("tb_groups", List.of("identification", "game"), List.of("kills", "deaths", "victories", "defeats"),
+            Set.of("kills", "deaths", "victories", "defeats")),
+    WINNERS("tb_game_winners", List.of("date", "game"), List.of("killer", "winner_group"), Set.of()),
+    WINNER_PLAYERS("tb_winner_players", List.of("date", "game", "uuid"), List.of("position"), Set.of()),
+    JOURNAL("tb_journal", List.of("name"), List.of("segment"), Set.of()),
+    WARRIOR_HISTORY("tb_warrior_history", List.of("uuid", "game", "bucket", "start"),
+            List.of("kills", "deaths", "victories"), Set.of("kills", "deaths", "victories")),
+    GROUP_HISTORY("tb_group_history", List.of("identification", "game", "bucket", "start"),
+            List.of("kills", "deaths", "victories", "defeats"), Set.of("kills", "deaths", "victories", "defeats")),
+    SEASONS("tb_seasons", List.of("id"), List.of("archived_at", "complete"), Set.of());
+
+    private final String name;
+    private final List<String> keyColumns;
+    private final List<String> valueColumns;
+    private final List<String> columns;
+    private final Set<String> counterColumns;
+
+    Table(@NotNull String name, @NotNull List<String> keyColumns, @NotNull List<String> valueColumns,
+          @NotNull Set<String> counterColumns) {
+        this.name = name;
+        this.keyColumns = keyColumns;
+        this.valueColumns = valueColumns;
+        this.counterColumns = counterColumns;
+        List<String> columns = new ArrayList<>(keyColumns);
+        columns.addAll(valueColumns);
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * @return the name of the unique index on the key columns
+     */
+    public @NotNull String getKeyIndex() {
+        return name + "_key";
+    }
+
+    public @NotNull List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public @NotNull List<String> getValueColumns() {
+        return valueColumns;
+    }
+
+    /**
+     * @return the value columns that hold counters, which can be saved as increments
+     */
+    public @NotNull Set<String> getCounterColumns() {
+        return counterColumns;
+    }
+
+    /**
+     * @return the key columns followed by the value columns, the order expected by {@link BatchWriter#add}
+     */
+    public @NotNull List<String> getColumns() {
+        return columns;
+    }
+}
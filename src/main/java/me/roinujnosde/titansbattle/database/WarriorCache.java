@@ -0,0 +1,152 @@
+package me.roinujnosde.titansbattle.database;
+
+import me.roinujnosde.titansbattle.types.Warrior;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the warriors in memory, remembering when each one was last accessed
+ * <p>
+ * Lookups may happen from any thread. Eviction is bounded by idle time and by a maximum size, but only warriors
+ * accepted by the eviction filter are removed, so the cache may grow past its maximum size.
+ */
+public class WarriorCache {
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile int maxSize;
+
+    public WarriorCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Gets a cached warrior, counting the lookup as a hit or miss
+     *
+     * @param uuid the warrior's UUID
+     * @return the warrior or null
+     */
+    public @Nullable Warrior get(@NotNull UUID uuid) {
+        final Entry entry = entries.get(uuid);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        entry.lastAccess = System.currentTimeMillis();
+        return entry.warrior;
+    }
+
+    /**
+     * Gets a cached warrior without counting it as an access
+     *
+     * @param uuid the warrior's UUID
+     * @return the warrior or null
+     */
+    public @Nullable Warrior peek(@NotNull UUID uuid) {
+        final Entry entry = entries.get(uuid);
+        return entry != null ? entry.warrior : null;
+    }
+
+    /**
+     * Caches the warrior if there isn't one with the same UUID
+     *
+     * @param warrior the warrior
+     * @return the cached warrior, which is the given one if it was added
+     */
+    public @NotNull Warrior putIfAbsent(@NotNull Warrior warrior) {
+        return entries.computeIfAbsent(warrior.getUniqueId(), uuid -> new Entry(warrior)).warrior;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isFull() {
+        return entries.size() > maxSize;
+    }
+
+    public @NotNull Collection<Warrior> values() {
+        final List<Warrior> warriors = new ArrayList<>(entries.size());
+        entries.values().forEach(e -> warriors.add(e.warrior));
+        return Collections.unmodifiableList(warriors);
+    }
+
+    /**
+     * Removes the warriors that were not accessed for a while, then the least recently used ones while the cache is
+     * over its maximum size
+     *
+     * @param idleMillis how long a warrior must be idle to be removed
+     * @param canEvict   filters the warriors that can be removed
+     * @return the removed warriors
+     */
+    public @NotNull List<Warrior> evict(long idleMillis, @NotNull Predicate<Warrior> canEvict) {
+        final long limit = System.currentTimeMillis() - idleMillis;
+        final List<Entry> candidates = new ArrayList<>();
+        for (final Entry entry : entries.values()) {
+            if (canEvict.test(entry.warrior)) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(e -> e.lastAccess));
+
+        final List<Warrior> evicted = new ArrayList<>();
+        for (final Entry entry : candidates) {
+            if (entry.lastAccess >= limit && entries.size() <= maxSize) {
+                break;
+            }
+            if (entries.remove(entry.warrior.getUniqueId(), entry)) {
+                evicted.add(entry.warrior);
+            }
+        }
+        evictions.addAndGet(evicted.size());
+        return evicted;
+    }
+
+    public @NotNull Stats getStats() {
+        return new Stats(entries.size(), maxSize, hits.get(), misses.get(), evictions.get());
+    }
+
+    /**
+     * A snapshot of the cache counters
+     *
+     * @param size      how many warriors are cached
+     * @param maxSize   the maximum size
+     * @param hits      lookups that found a warrior
+     * @param misses    lookups that did not find a warrior
+     * @param evictions warriors removed by {@link #evict(long, Predicate)}
+     */
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions) {
+
+        public double getHitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private static class Entry {
+        private final Warrior warrior;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(@NotNull Warrior warrior) {
+            this.warrior = warrior;
+        }
+    }
+}
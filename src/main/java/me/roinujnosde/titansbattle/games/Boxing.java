@@ -1,8 +1,8 @@
 package me.roinujnosde.titansbattle.games;
 
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
-import me.roinujnosde.titansbattle.utils.MessageUtils;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,12 +22,13 @@ public class Boxing extends EliminationTournamentGame {
         UUID attackerUUID = attacker.getUniqueId();
         hitsCount.put(attackerUUID, hitsCount.getOrDefault(attackerUUID, 0) + 1);
         if (hitsCount.get(attackerUUID) < getConfig().getHitAmount()) {
-            MessageUtils.sendActionBar(attacker, getLang("boxing_hit_count", hitsCount.get(attackerUUID), getConfig().getHitAmount()));
+            plugin.getBroadcastManager().sendActionBar(attacker,
+                    getLang("boxing_hit_count", hitsCount.get(attackerUUID), getConfig().getHitAmount()));
             return true;
         } else {
             hitsCount.remove(attackerUUID);
             hitsCount.remove(victim.getUniqueId());
-            plugin.debug(String.format("onHit() - kill player %s", victim.getName()));
+            plugin.getDebugLogger().debug(Category.COMBAT, "onHit() - kill player {}", victim.getName());
             return false;
         }
     }
@@ -4,6 +4,7 @@ import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.events.GroupWinEvent;
 import me.roinujnosde.titansbattle.events.PlayerWinEvent;
 import me.roinujnosde.titansbattle.exceptions.CommandNotSupportedException;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
 import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.Kit;
@@ -28,6 +29,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static me.roinujnosde.titansbattle.BaseGameConfiguration.Prize.FIRST;
@@ -77,7 +79,7 @@ public class EliminationTournamentGame extends Game {
     private List<Warrior> getDuelLosers(@NotNull final Warrior defeated) {
         final Group group = getGroup(defeated);
         if (group != null && getConfig().isGroupMode()) {
-            return casualties.stream()
+            return getCasualties().stream()
                     .filter(p -> isMember(group, p))
                     .collect(Collectors.toCollection(ArrayList::new));
         }
@@ -181,11 +183,11 @@ public class EliminationTournamentGame extends Game {
                 if (config.isGroupMode()) {
                     final Group group = getGroup(warrior);
                     //noinspection DataFlowIssue
-                    casualties.stream().filter(p -> isMember(group, p)).forEach(waitingThirdPlace::add);
+                    getCasualties().stream().filter(p -> isMember(group, p)).forEach(this::addWaitingThirdPlace);
                 } else {
-                    waitingThirdPlace.add(warrior);
+                    addWaitingThirdPlace(warrior);
                 }
-                Bukkit.getScheduler().runTaskLater(plugin, () -> waitingThirdPlace.removeIf(w -> w.toOnlinePlayer() == null), 5L);
+                Bukkit.getScheduler().runTaskLater(plugin, () -> removeWaitingThirdPlace(w -> w.toOnlinePlayer() == null), 5L);
             }
         }
 
@@ -201,9 +203,11 @@ public class EliminationTournamentGame extends Game {
 
     @Override
     public void onRespawn(final PlayerRespawnEvent event, @NotNull final Warrior warrior) {
-        plugin.debug("Respawning in EliminationTournamentGame for " + warrior.getName());
+        plugin.getDebugLogger().debug(Category.GAME, "Respawning in EliminationTournamentGame for {}",
+                warrior.getName());
         if (waitingThirdPlace.contains(warrior)) {
-            plugin.debug("Respawning in EliminationTournamentGame for " + warrior.getName() + " in third place battle");
+            plugin.getDebugLogger().debug(Category.GAME,
+                    "Respawning in EliminationTournamentGame for {} in third place battle", warrior.getName());
             final Player player = warrior.toOnlinePlayer();
             if (player == null) return;
             setKit(warrior);
@@ -247,9 +251,10 @@ public class EliminationTournamentGame extends Game {
 
     private void kickExcessivePlayers() {
         final Set<Warrior> toKick = new HashSet<>();
-        for (int i = participants.size(); i > 2; i--) {
+        final List<Warrior> warriors = new ArrayList<>(getParticipants());
+        for (int i = warriors.size(); i > 2; i--) {
             if (!isPowerOfTwo(i)) {
-                toKick.add(participants.get(i - 1));
+                toKick.add(warriors.get(i - 1));
                 continue;
             }
             break;
@@ -268,7 +273,7 @@ public class EliminationTournamentGame extends Game {
             break;
         }
         for (final Group group : toKick) {
-            kickExcessive(participants.stream().filter(p -> isMember(group, p)).collect(Collectors.toSet()));
+            kickExcessive(getParticipants().stream().filter(p -> isMember(group, p)).collect(Collectors.toSet()));
         }
     }
 
@@ -287,6 +292,17 @@ public class EliminationTournamentGame extends Game {
         });
     }
 
+    private void addWaitingThirdPlace(@NotNull final Warrior warrior) {
+        waitingThirdPlace.add(warrior);
+        updateRoute(warrior);
+    }
+
+    private void removeWaitingThirdPlace(@NotNull final Predicate<Warrior> filter) {
+        final List<Warrior> removed = waitingThirdPlace.stream().filter(filter).toList();
+        waitingThirdPlace.removeAll(removed);
+        removed.forEach(this::updateRoute);
+    }
+
     private long getWaitingThirdPlaceCount() {
         if (getConfig().isGroupMode()) {
             return getWaitingThirdPlaceGroups().size();
@@ -302,24 +318,24 @@ public class EliminationTournamentGame extends Game {
     private void generateDuelists() {
         if (getWaitingThirdPlaceCount() == 2) {
             broadcastKey("battle_for_third_place");
-            participants.addAll(waitingThirdPlace);
+            waitingThirdPlace.forEach(w -> participants.add(w, getGroup(w)));
             if (getConfig().isGroupMode()) {
                 generateDuelist(getWaitingThirdPlaceGroups(), groupDuelists);
             } else {
                 generateDuelist(waitingThirdPlace, playerDuelists);
             }
-            waitingThirdPlace.clear();
+            removeWaitingThirdPlace(w -> true);
             thirdPlaceBattle = true;
         } else {
             if (getConfig().isGroupMode()) {
                 generateDuelist(new ArrayList<>(getGroupParticipants().keySet()), groupDuelists);
             } else {
-                generateDuelist(participants, playerDuelists);
+                generateDuelist(new ArrayList<>(getParticipants()), playerDuelists);
             }
             if (getDuelsCount() == 1) {
                 if (getWaitingThirdPlaceCount() == 1) {
                     thirdPlaceWinners = new ArrayList<>(waitingThirdPlace);
-                    waitingThirdPlace.clear();
+                    removeWaitingThirdPlace(w -> true);
                 }
                 broadcastKey("final_battle");
             }
@@ -340,11 +356,11 @@ public class EliminationTournamentGame extends Game {
     }
 
     private void startNextDuel() {
-        plugin.debug("Starting next duel in EliminationTournamentGame");
+        plugin.getDebugLogger().debug(Category.GAME, "Starting next duel in EliminationTournamentGame");
         if (getPlayerOrGroupCount() <= 1) {
             //opponents probably disconnected before the battle
             if (firstPlaceWinners.isEmpty()) {
-                firstPlaceWinners.addAll(participants);
+                firstPlaceWinners.addAll(getParticipants());
             }
             finish(false);
             return;
@@ -443,7 +459,7 @@ public class EliminationTournamentGame extends Game {
         }
 
         if (getConfig().isGroupMode() && firstGroup != null) {
-            casualties.stream().filter(p -> isMember(firstGroup, p)).forEach(firstPlaceWinners::add);
+            getCasualties().stream().filter(p -> isMember(firstGroup, p)).forEach(firstPlaceWinners::add);
             firstPlaceWinners = firstPlaceWinners.stream().distinct().collect(Collectors.toCollection(ArrayList::new));
             todayWinners.setWinnerGroup(getConfig().getName(), firstGroup.getName());
             final GroupWinEvent event = new GroupWinEvent(firstGroup);
@@ -515,7 +531,7 @@ public class EliminationTournamentGame extends Game {
             for (int i = 1; i < list.size(); i++) {
                 final Duel<D> duel = list.get(i);
                 if (!duel.isValid()) {
-                    plugin.debug("Skipping duel " + i + " because it is not valid");
+                    plugin.getDebugLogger().debug(Category.GAME, "Skipping duel {} because it is not valid", i);
                     continue;
                 }
                 final String[] names = duelToNameArray(duel, getName);
@@ -15,7 +15,6 @@ import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -43,7 +42,7 @@ public class FreeForAllGame extends Game {
 
     @Override
     public @NotNull Collection<Warrior> getCurrentFighters() {
-        return participants;
+        return getParticipants();
     }
 
     @Override
@@ -125,7 +124,7 @@ public class FreeForAllGame extends Game {
         if (groupManager != null && getConfig().isGroupMode()) {
             groupsText = groupManager.buildStringFrom(getGroupParticipants().keySet());
         }
-        return MessageFormat.format(getLang("game_info"),
+        return getLang("game_info",
                 getParticipants().size(), getGroupParticipants().size(), groupsText);
     }
 }
@@ -4,7 +4,11 @@ import me.clip.placeholderapi.PlaceholderAPIPlugin;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.games.Game;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.managers.DatabaseManager;
+import me.roinujnosde.titansbattle.ranking.RankingEntry;
+import me.roinujnosde.titansbattle.ranking.RankingService;
+import me.roinujnosde.titansbattle.types.Counter;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
 import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.Warrior;
@@ -13,8 +17,8 @@ import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
@@ -33,6 +37,11 @@ public class TBExpansion extends PlaceholderExpansion {
     private static final Pattern LAST_WINNER_GROUP_PATTERN;
     private static final Pattern LAST_WINNER_KILLER_PATTERN;
     private static final Pattern PREFIX_PATTERN;
+    private static final Pattern SEASON_TOP_PATTERN;
+    private static final Pattern TOP_GROUP_PATTERN;
+    private static final Pattern TOP_PATTERN;
+    private static final Pattern GROUP_RANK_PATTERN;
+    private static final Pattern RANK_PATTERN;
 
     static {
         PARTICIPANTS_SIZE = Pattern.compile("participants_size");
@@ -41,9 +50,20 @@ public class TBExpansion extends PlaceholderExpansion {
         LAST_WINNER_GROUP_PATTERN = Pattern.compile("last_winner_group_(?<game>\\S+)");
         LAST_WINNER_KILLER_PATTERN = Pattern.compile("last_(?<type>winner|killer)_(?<game>\\S+)");
         PREFIX_PATTERN = Pattern.compile("(?<game>^\\S+)_(?<type>winner|killer)_prefix");
+        SEASON_TOP_PATTERN = Pattern.compile("season_(?<season>\\d{1,6})_top_(?<group>group_)?(?<game>\\S+)_(?<metric>kills|deaths|victories|defeats)_(?<position>\\d{1,3})_(?<field>name|value)");
+        TOP_GROUP_PATTERN = Pattern.compile("top_group_(?<game>\\S+)_(?<metric>kills|deaths|victories|defeats)_(?<position>\\d{1,6})_(?<field>name|value)");
+        TOP_PATTERN = Pattern.compile("top_(?<game>\\S+)_(?<metric>kills|deaths|victories)_(?<position>\\d{1,6})_(?<field>name|value)");
+        GROUP_RANK_PATTERN = Pattern.compile("group_rank_(?<game>\\S+)_(?<metric>kills|deaths|victories|defeats)");
+        RANK_PATTERN = Pattern.compile("rank_(?<game>\\S+)_(?<metric>kills|deaths|victories)");
         PLACEHOLDERS = Arrays.asList("%titansbattle_groups_size%", "%titansbattle_participants_size%", "%titansbattle_arena_in_use_<arena>%", "%titansbattle_last_winner_group_<game>%",
                 "%titansbattle_last_<killer|winner>_<game>%", "%titansbattle_<game>_<killer|winner>_prefix%",
-                "%titansbattle_group_total_victories%", "%titansbattle_total_kills%", "%titansbattle_total_deaths%");
+                "%titansbattle_group_total_victories%", "%titansbattle_total_kills%", "%titansbattle_total_deaths%",
+                "%titansbattle_rank_<game>_<kills|deaths|victories>%",
+                "%titansbattle_group_rank_<game>_<kills|deaths|victories|defeats>%",
+                "%titansbattle_top_<game>_<kills|deaths|victories>_<position>_<name|value>%",
+                "%titansbattle_top_group_<game>_<kills|deaths|victories|defeats>_<position>_<name|value>%",
+                "%titansbattle_season_<season>_top_<game>_<kills|deaths|victories>_<position>_<name|value>%",
+                "%titansbattle_season_<season>_top_group_<game>_<kills|deaths|victories|defeats>_<position>_<name|value>%");
     }
 
     private final TitansBattle plugin;
@@ -120,9 +140,35 @@ public class TBExpansion extends PlaceholderExpansion {
             }
         }
 
+        Matcher seasonTop = SEASON_TOP_PATTERN.matcher(params);
+        if (seasonTop.matches()) {
+            return getSeasonTop(seasonTop);
+        }
+        Matcher topGroup = TOP_GROUP_PATTERN.matcher(params);
+        if (topGroup.matches()) {
+            return getTopGroup(topGroup);
+        }
+        Matcher top = TOP_PATTERN.matcher(params);
+        if (top.matches()) {
+            return getTop(top);
+        }
+
         if (player == null) {
             return "";
         }
+        Matcher groupRank = GROUP_RANK_PATTERN.matcher(params);
+        if (groupRank.matches()) {
+            Group group = plugin.getDatabaseManager().getWarrior(player).getGroup();
+            if (group == null) {
+                return "0";
+            }
+            return valueOf(getRankingService().getGroupRank(group.getId(), groupRank.group("game"),
+                    getCounter(groupRank)));
+        }
+        Matcher rank = RANK_PATTERN.matcher(params);
+        if (rank.matches()) {
+            return valueOf(getRankingService().getRank(player.getUniqueId(), rank.group("game"), getCounter(rank)));
+        }
         Matcher prefix = PREFIX_PATTERN.matcher(params);
         if (prefix.find()) {
             String game = prefix.group("game");
@@ -149,21 +195,69 @@ public class TBExpansion extends PlaceholderExpansion {
         return null;
     }
 
+    private @NotNull String getTop(@NotNull Matcher matcher) {
+        String game = matcher.group("game");
+        Counter counter = getCounter(matcher);
+        Warrior warrior = getRankingService().getWarrior(Integer.parseInt(matcher.group("position")), game, counter);
+        if (warrior == null) {
+            return "";
+        }
+        return matcher.group("field").equals("name") ? warrior.getName() : valueOf(warrior.getStat(game, counter));
+    }
+
+    private @NotNull String getTopGroup(@NotNull Matcher matcher) {
+        String game = matcher.group("game");
+        Counter counter = getCounter(matcher);
+        Group group = getRankingService().getGroup(Integer.parseInt(matcher.group("position")), game, counter);
+        if (group == null) {
+            return "";
+        }
+        return matcher.group("field").equals("name") ? group.getName() : valueOf(group.getData().getStat(game,
+                counter));
+    }
+
+    private @NotNull String getSeasonTop(@NotNull Matcher matcher) {
+        Counter counter = getCounter(matcher);
+        RankingEntry entry = getRankingService().getSeasonEntry(Integer.parseInt(matcher.group("season")),
+                matcher.group("group") != null, Integer.parseInt(matcher.group("position")), matcher.group("game"),
+                counter);
+        if (entry == null) {
+            return "";
+        }
+        if (matcher.group("field").equals("name")) {
+            return entry.name();
+        }
+        return valueOf(switch (counter) {
+            case KILLS -> entry.kills();
+            case DEATHS -> entry.deaths();
+            case VICTORIES -> entry.victories();
+            case DEFEATS -> entry.defeats();
+        });
+    }
+
+    private @NotNull Counter getCounter(@NotNull Matcher matcher) {
+        return Counter.valueOf(matcher.group("metric").toUpperCase(Locale.ROOT));
+    }
+
+    private @NotNull RankingService getRankingService() {
+        return plugin.getRankingService();
+    }
+
     @NotNull
     private String getWinnerPrefix(@NotNull OfflinePlayer player, @NotNull String game) {
         Optional<GameConfiguration> config = plugin.getConfigurationDao().getConfiguration(game, GameConfiguration.class);
         if (config.isEmpty()) {
-            plugin.debug(String.format("game %s not found", game));
+            plugin.getDebugLogger().trace(Category.GAME, "game {} not found", game);
             return "";
         }
         Winners latestWinners = plugin.getDatabaseManager().getLatestWinners();
         List<UUID> playerWinners = latestWinners.getPlayerWinners(game);
         if (playerWinners == null || !playerWinners.contains(player.getUniqueId())) {
-            plugin.debug(String.format("player winners: %s", playerWinners));
+            plugin.getDebugLogger().trace(Category.GAME, "player winners: {}", playerWinners);
             return "";
         }
         String prefix = config.get().getWinnerPrefix();
-        plugin.debug("prefix: " + prefix);
+        plugin.getDebugLogger().trace(Category.GAME, "prefix: {}", prefix);
         return prefix != null ? prefix : "";
     }
 
@@ -211,8 +305,7 @@ public class TBExpansion extends PlaceholderExpansion {
     }
 
     private Optional<Winners> getLastWinnersMatching(Predicate<Winners> filter) {
-        return plugin.getDatabaseManager().getWinners().stream().sorted(Comparator.reverseOrder())
-                .filter(filter).findFirst();
+        return plugin.getDatabaseManager().getLatestWinners(filter);
     }
 
     private String toString(boolean bool) {
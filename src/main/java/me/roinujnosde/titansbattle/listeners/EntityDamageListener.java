@@ -32,8 +32,7 @@ public class EntityDamageListener extends TBListener {
 
     @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
     public void onDamageLowest(EntityDamageEvent event) {
-        boolean disableFfMessages = plugin.getConfig().getBoolean("disable-ff-messages", true);
-        if (disableFfMessages && isParticipant(event.getEntity())) {
+        if (plugin.getConfigManager().isDisableFfMessages() && isParticipant(event.getEntity())) {
             // Cancelling so other plugins don't display messages such as "can't hit an ally" during the game
             event.setCancelled(true);
         }
@@ -25,6 +25,7 @@ package me.roinujnosde.titansbattle.listeners;
 
 import me.roinujnosde.titansbattle.BaseGame;
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.managers.ConfigManager;
 import me.roinujnosde.titansbattle.managers.GameManager;
 import org.bukkit.entity.Player;
@@ -32,8 +33,6 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.MessageFormat;
-
 /**
  * @author RoinujNosde
  */
@@ -54,13 +53,9 @@ public class PlayerCommandPreprocessListener extends TBListener {
         final Player player = event.getPlayer();
         if (canBypassCommandRestrictions(player)) return;
 
-        for (final String command : cm.getBlockedCommandsEveryone()) {
-            if (event.getMessage().startsWith(command)) {
-                player.sendMessage(MessageFormat.format(plugin.getLang("command-blocked-for-everyone", game),
-                        event.getMessage()));
-                event.setCancelled(true);
-                break;
-            }
+        if (!cm.getEveryoneCommandPolicy().isAllowed(event.getMessage(), true)) {
+            player.sendMessage(getLangUntranslated("command-blocked-for-everyone", game, event.getMessage()));
+            event.setCancelled(true);
         }
     }
 
@@ -70,25 +65,39 @@ public class PlayerCommandPreprocessListener extends TBListener {
         final Player player = event.getPlayer();
         final BaseGame game = plugin.getBaseGameFrom(player);
         if (game == null) {
-            plugin.debug("PlayerCommandPreprocessEvent: No game found for player " + player.getName());
+            plugin.getDebugLogger().trace(Category.COMMANDS,
+                    "PlayerCommandPreprocessEvent: No game found for player {}", player.getName());
             return;
         }
 
-        for (final String command : cm.getAllowedCommands()) {
-            if (event.getMessage().startsWith(command)) {
-                plugin.debug("PlayerCommandPreprocessEvent: Command allowed for player " + player.getName() + ": " + event.getMessage());
-                return;
-            }
+        if (cm.getCommandPolicy(game.getConfig()).isAllowed(event.getMessage(), false)) {
+            plugin.getDebugLogger().trace(Category.COMMANDS,
+                    "PlayerCommandPreprocessEvent: Command allowed for player {}: {}",
+                    player.getName(), event.getMessage());
+            return;
         }
 
-        plugin.debug("PlayerCommandPreprocessEvent: Command not allowed for player " + player.getName() + ": " + event.getMessage());
+        plugin.getDebugLogger().debug(Category.COMMANDS,
+                "PlayerCommandPreprocessEvent: Command not allowed for player {}: {}",
+                player.getName(), event.getMessage());
         if (!canBypassCommandRestrictions(player)) {
-            player.sendMessage(MessageFormat.format(plugin.getLang("command-not-allowed", game), event.getMessage()));
+            player.sendMessage(getLangUntranslated("command-not-allowed", game, event.getMessage()));
             event.setCancelled(true);
-            plugin.debug("PlayerCommandPreprocessEvent: Command cancelled for player " + player.getName() + ": " + event.getMessage());
+            plugin.getDebugLogger().debug(Category.COMMANDS,
+                    "PlayerCommandPreprocessEvent: Command cancelled for player {}: {}",
+                    player.getName(), event.getMessage());
         }
     }
 
+    /**
+     * The command is typed by the player, so its color codes are not translated
+     */
+    private @NotNull String getLangUntranslated(@NotNull final String key, @NotNull final BaseGame game,
+                                                @NotNull final String command) {
+        return plugin.getLanguageManager().getTemplate(key, game.getConfig().getFileConfiguration())
+                .formatUntranslated(command);
+    }
+
     private boolean canBypassCommandRestrictions(final Player player) {
         return player.hasPermission("titansbattle.command-bypass");
     }
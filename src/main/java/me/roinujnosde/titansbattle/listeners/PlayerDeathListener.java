@@ -60,7 +60,7 @@ public class PlayerDeathListener extends TBListener {
                 GameConfiguration gameConfig = Helper.getGameConfigurationFromWinnerOrKiller(victim);
                 if (gameConfig == null) return;
                 gm.setKiller(gameConfig, killer, victim);
-                dm.saveAll();
+                dm.requestSave();
             }
             return;
         }
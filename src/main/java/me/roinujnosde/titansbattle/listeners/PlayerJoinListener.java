@@ -61,6 +61,8 @@ public class PlayerJoinListener extends TBListener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onJoin(final @NotNull PlayerJoinEvent event) {
         final Player player = event.getPlayer();
+        // with lazy loading, this starts loading the player's statistics
+        plugin.getDatabaseManager().getWarrior(player);
         handleNpcProxyRestoration(player);
         teleportToExit(player);
         clearInventory(player);
@@ -2,16 +2,26 @@ package me.roinujnosde.titansbattle.listeners;
 
 import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.managers.GameManager;
+import me.roinujnosde.titansbattle.managers.SimpleClansGroupManager;
 import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.Warrior;
+import net.sacredlabyrinth.phaed.simpleclans.Clan;
+import net.sacredlabyrinth.phaed.simpleclans.events.CreateClanEvent;
+import net.sacredlabyrinth.phaed.simpleclans.events.DisbandClanEvent;
+import net.sacredlabyrinth.phaed.simpleclans.events.PlayerJoinedClanEvent;
+import net.sacredlabyrinth.phaed.simpleclans.events.PlayerKickedClanEvent;
 import net.sacredlabyrinth.phaed.simpleclans.events.PreDisbandClanEvent;
 import net.sacredlabyrinth.phaed.simpleclans.events.PrePlayerKickedClanEvent;
+import net.sacredlabyrinth.phaed.simpleclans.events.TagChangeEvent;
+import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public class SimpleClansListener extends TBListener {
     private final GameManager gm;
@@ -49,4 +59,44 @@ public class SimpleClansListener extends TBListener {
         });
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCreateClan(CreateClanEvent event) {
+        withGroupManager(gm -> gm.invalidateClan(event.getClan()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDisbandClan(DisbandClanEvent event) {
+        withGroupManager(gm -> gm.invalidateClan(event.getClan()));
+        plugin.getDatabaseManager().removeFromGroupsLeaderboards(event.getClan().getTag());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTagChange(TagChangeEvent event) {
+        Clan clan = event.getClan();
+        plugin.getDatabaseManager().removeFromGroupsLeaderboards(clan.getTag());
+        // the tag is only changed after the event
+        Bukkit.getScheduler().runTask(plugin, () -> withGroupManager(gm -> gm.invalidateClan(clan)));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoinedClan(PlayerJoinedClanEvent event) {
+        withGroupManager(gm -> gm.invalidatePlayer(event.getClanPlayer().getUniqueId()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerKickedClan(PlayerKickedClanEvent event) {
+        withGroupManager(gm -> gm.invalidatePlayer(event.getClanPlayer().getUniqueId()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        withGroupManager(gm -> gm.invalidatePlayer(event.getPlayer().getUniqueId()));
+    }
+
+    private void withGroupManager(Consumer<SimpleClansGroupManager> action) {
+        if (plugin.getGroupManager() instanceof SimpleClansGroupManager groupManager) {
+            action.accept(groupManager);
+        }
+    }
+
 }
@@ -6,6 +6,7 @@ import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.events.GameFinishEvent;
 import me.roinujnosde.titansbattle.events.GroupWinEvent;
 import me.roinujnosde.titansbattle.events.PlayerWinEvent;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.managers.ConfigManager;
 import me.roinujnosde.titansbattle.managers.SpectateManager;
 import me.roinujnosde.titansbattle.utils.Helper;
@@ -31,8 +32,6 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.MessageFormat;
-
 public class SpectateListener extends TBListener implements Listener {
 
     private final ConfigManager configManager;
@@ -63,7 +62,8 @@ public class SpectateListener extends TBListener implements Listener {
     public void onPlayerQuit(final @NotNull PlayerQuitEvent event) {
         final Player player = event.getPlayer();
         if (spectateManager.isSpectating(player)) {
-            plugin.debug(String.format("Player %s quit while spectating. Removing from spectator list.", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME,
+                    "Player {} quit while spectating. Removing from spectator list.", player.getName());
             spectateManager.removeSpectator(player);
         }
     }
@@ -73,12 +73,12 @@ public class SpectateListener extends TBListener implements Listener {
         final Player player = event.getPlayer();
         if (!spectateManager.isSpectating(player)) return;
 
-        for (final String command : configManager.getAllowedCommandsInSpectator()) {
-            if (event.getMessage().startsWith(command)) return;
-        }
+        if (configManager.getSpectatorCommandPolicy().isAllowed(event.getMessage(), false)) return;
 
         if (!player.hasPermission("titansbattle.command-bypass")) {
-            player.sendMessage(MessageFormat.format(plugin.getLang("command-not-allowed-in-spectator"), event.getMessage()));
+            // typed by the player, so its color codes are not translated
+            player.sendMessage(plugin.getLanguageManager().getTemplate("command-not-allowed-in-spectator", null)
+                    .formatUntranslated(event.getMessage()));
             event.setCancelled(true);
         }
     }
@@ -90,7 +90,8 @@ public class SpectateListener extends TBListener implements Listener {
         }
         final Player player = event.getPlayer();
         if (spectateManager.isSpectating(player) && !player.hasPermission("titansbattle.teleport-bypass")) {
-            plugin.debug(String.format("Player %s tried to teleport while spectating. Teleport cancelled.", event.getPlayer().getName()));
+            plugin.getDebugLogger().debug(Category.GAME,
+                    "Player {} tried to teleport while spectating. Teleport cancelled.", event.getPlayer().getName());
             event.setCancelled(true);
         }
     }
@@ -0,0 +1,160 @@
+package me.roinujnosde.titansbattle.logging;
+
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
+import me.roinujnosde.titansbattle.logging.DebugLogger.FileSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Writes the debug messages to logs/debug.log on its own thread, rotating the file when it gets too big
+ * <p>
+ * The messages wait in a bounded queue, and are dropped when it is full, so logging never blocks the main thread.
+ */
+class DebugFileAppender {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final Path folder;
+    private final FileSettings settings;
+    private final Logger logger;
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean closed;
+    private @Nullable BufferedWriter writer;
+    private long size;
+    private long reportedDropped;
+
+    DebugFileAppender(@NotNull File folder, @NotNull FileSettings settings, @NotNull Logger logger) {
+        this.folder = folder.toPath();
+        this.settings = settings;
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, settings.bufferSize()));
+        thread = new Thread(this::run, "TitansBattle Debug Writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void append(@NotNull Entry entry) {
+        if (closed || !queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes the queued messages and closes the file, waiting up to 5 seconds
+     */
+    void close() {
+        closed = true;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            open();
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                do {
+                    write(entry);
+                } while ((entry = queue.poll()) != null);
+                final long dropped = this.dropped.get();
+                if (dropped != reportedDropped) {
+                    write(String.format("%d messages dropped, the queue was full", dropped - reportedDropped));
+                    reportedDropped = dropped;
+                }
+                //noinspection DataFlowIssue
+                writer.flush();
+            }
+        } catch (IOException ex) {
+            logger.warning("Could not write the debug file: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed = true;
+            closeWriter();
+        }
+    }
+
+    private void write(@NotNull Entry entry) throws IOException {
+        final String message = entry.parameterized() ? DebugLogger.format(entry.pattern(), entry.arg1(),
+                entry.arg2(), entry.arg3()) : entry.pattern();
+        write(TIME_FORMAT.format(Instant.ofEpochMilli(entry.time())) + " [" + entry.category() + "] " + message);
+    }
+
+    private void write(@NotNull String line) throws IOException {
+        if (size >= settings.maxSize()) {
+            rotate();
+        }
+        //noinspection DataFlowIssue
+        writer.write(line);
+        writer.newLine();
+        // close enough, most messages are ASCII
+        size += line.length() + 1;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(folder);
+        final Path file = folder.resolve("debug.log");
+        size = Files.exists(file) ? Files.size(file) : 0;
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        final int maxFiles = Math.max(1, settings.maxFiles());
+        Files.deleteIfExists(folder.resolve("debug." + maxFiles + ".log"));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            final Path file = folder.resolve("debug." + i + ".log");
+            if (Files.exists(file)) {
+                Files.move(file, folder.resolve("debug." + (i + 1) + ".log"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(folder.resolve("debug.log"), folder.resolve("debug.1.log"), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                logger.warning("Could not close the debug file: " + ex.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    record Entry(long time, @NotNull Category category, @NotNull String pattern, @Nullable Object arg1,
+                 @Nullable Object arg2, @Nullable Object arg3, boolean parameterized) {
+    }
+}
@@ -0,0 +1,177 @@
+package me.roinujnosde.titansbattle.logging;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * The debug messages of the plugin, enabled by category in config.yml
+ * <p>
+ * The messages take "{}" placeholders or a supplier, so nothing is formatted while their category is disabled. When
+ * the debug file is enabled, they are queued and written by another thread instead of the server console.
+ */
+public class DebugLogger {
+
+    private final Logger console;
+    private final File folder;
+    private volatile Level[] levels = new Level[Category.values().length];
+    private volatile @Nullable DebugFileAppender appender;
+
+    public DebugLogger(@NotNull Logger console, @NotNull File folder) {
+        this.console = console;
+        this.folder = folder;
+        Arrays.fill(levels, Level.OFF);
+    }
+
+    /**
+     * Applies the settings, replacing the debug file if it was open
+     *
+     * @param levels   the level of each category
+     * @param settings the settings of the debug file, or null to log to the console
+     */
+    public synchronized void configure(@NotNull Map<Category, Level> levels, @Nullable FileSettings settings) {
+        final Level[] newLevels = new Level[Category.values().length];
+        for (final Category category : Category.values()) {
+            newLevels[category.ordinal()] = levels.getOrDefault(category, Level.OFF);
+        }
+        close();
+        if (settings != null && Arrays.stream(newLevels).anyMatch(l -> l != Level.OFF)) {
+            appender = new DebugFileAppender(new File(folder, "logs"), settings, console);
+        }
+        this.levels = newLevels;
+    }
+
+    public boolean isEnabled(@NotNull Category category, @NotNull Level level) {
+        return levels[category.ordinal()].compareTo(level) >= 0;
+    }
+
+    public void debug(@NotNull Category category, @NotNull String message) {
+        if (isEnabled(category, Level.DEBUG)) {
+            write(category, message, null, null, null, false);
+        }
+    }
+
+    public void debug(@NotNull Category category, @NotNull String pattern, @Nullable Object arg) {
+        log(category, Level.DEBUG, pattern, arg, null, null);
+    }
+
+    public void debug(@NotNull Category category, @NotNull String pattern, @Nullable Object arg1,
+                      @Nullable Object arg2) {
+        log(category, Level.DEBUG, pattern, arg1, arg2, null);
+    }
+
+    public void debug(@NotNull Category category, @NotNull String pattern, @Nullable Object arg1,
+                      @Nullable Object arg2, @Nullable Object arg3) {
+        log(category, Level.DEBUG, pattern, arg1, arg2, arg3);
+    }
+
+    public void debug(@NotNull Category category, @NotNull Supplier<String> message) {
+        if (isEnabled(category, Level.DEBUG)) {
+            write(category, message.get(), null, null, null, false);
+        }
+    }
+
+    public void trace(@NotNull Category category, @NotNull String pattern, @Nullable Object arg) {
+        log(category, Level.TRACE, pattern, arg, null, null);
+    }
+
+    public void trace(@NotNull Category category, @NotNull String pattern, @Nullable Object arg1,
+                      @Nullable Object arg2) {
+        log(category, Level.TRACE, pattern, arg1, arg2, null);
+    }
+
+    private void log(@NotNull Category category, @NotNull Level level, @NotNull String pattern, @Nullable Object arg1,
+                     @Nullable Object arg2, @Nullable Object arg3) {
+        if (isEnabled(category, level)) {
+            write(category, pattern, arg1, arg2, arg3, true);
+        }
+    }
+
+    private void write(@NotNull Category category, @NotNull String pattern, @Nullable Object arg1,
+                       @Nullable Object arg2, @Nullable Object arg3, boolean parameterized) {
+        final DebugFileAppender appender = this.appender;
+        if (appender != null) {
+            appender.append(new DebugFileAppender.Entry(System.currentTimeMillis(), category, pattern, freeze(arg1),
+                    freeze(arg2), freeze(arg3), parameterized));
+        } else {
+            console.info(parameterized ? format(pattern, arg1, arg2, arg3) : pattern);
+        }
+    }
+
+    /**
+     * @return how many messages were dropped because the queue was full, since the debug file was opened
+     */
+    public long getDropped() {
+        final DebugFileAppender appender = this.appender;
+        return appender != null ? appender.getDropped() : 0;
+    }
+
+    /**
+     * Writes the queued messages and closes the debug file
+     */
+    public synchronized void close() {
+        final DebugFileAppender appender = this.appender;
+        if (appender != null) {
+            this.appender = null;
+            appender.close();
+        }
+    }
+
+    /**
+     * The arguments are formatted by the writer thread, so the mutable ones are converted to text here, on the thread
+     * that owns them. Their toString() may also use the Bukkit API, which is not safe on other threads.
+     *
+     * @param arg the argument
+     * @return the argument if it is immutable, or its text
+     */
+    private static @Nullable Object freeze(@Nullable Object arg) {
+        if (arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long
+                || arg instanceof Double || arg instanceof Boolean || arg instanceof Enum<?> || arg instanceof UUID) {
+            return arg;
+        }
+        return String.valueOf(arg);
+    }
+
+    static @NotNull String format(@NotNull String pattern, @Nullable Object arg1, @Nullable Object arg2,
+                                  @Nullable Object arg3) {
+        final StringBuilder builder = new StringBuilder(pattern.length() + 32);
+        final Object[] args = {arg1, arg2, arg3};
+        int start = 0;
+        for (int i = 0; i < args.length; i++) {
+            final int index = pattern.indexOf("{}", start);
+            if (index == -1) {
+                break;
+            }
+            builder.append(pattern, start, index).append(args[i]);
+            start = index + 2;
+        }
+        return builder.append(pattern, start, pattern.length()).toString();
+    }
+
+    public enum Category {
+        GAME, COMBAT, NPC, COMMANDS, PERSISTENCE;
+
+        public @NotNull String getKey() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Level {
+        OFF, DEBUG, TRACE
+    }
+
+    /**
+     * @param maxSize    the size of the file before it is rotated, in bytes
+     * @param maxFiles   how many rotated files are kept
+     * @param bufferSize how many messages can be queued, more are dropped
+     */
+    public record FileSettings(long maxSize, int maxFiles, int bufferSize) {
+    }
+}
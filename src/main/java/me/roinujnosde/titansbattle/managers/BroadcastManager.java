@@ -0,0 +1,115 @@
+package me.roinujnosde.titansbattle.managers;
+
+import me.roinujnosde.titansbattle.TitansBattle;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the messages as components, built once for the whole audience they are sent to
+ * <p>
+ * The action bars are coalesced: the ones sent to the same audience before the next flush replace each other, so a
+ * burst of deaths sends each player only the last one instead of a packet per death.
+ */
+public class BroadcastManager {
+
+    private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.builder()
+            .character(LegacyComponentSerializer.SECTION_CHAR)
+            .hexColors()
+            .useUnusualXRepeatedCharacterHexFormat()
+            .build();
+
+    private final TitansBattle plugin;
+    private final Map<Audience, Component> actionBars = new ConcurrentHashMap<>();
+    private final Audience spectators;
+
+    public BroadcastManager(@NotNull TitansBattle plugin) {
+        this.plugin = plugin;
+        this.spectators = (ForwardingAudience) () -> plugin.getSpectateManager().getSpectators();
+    }
+
+    /**
+     * @param message the message, with its color codes already translated
+     * @return the message as a component
+     */
+    public static @NotNull Component toComponent(@NotNull String message) {
+        return SERIALIZER.deserialize(message);
+    }
+
+    /**
+     * @return every player and the console
+     */
+    public @NotNull Audience getServer() {
+        return Bukkit.getServer();
+    }
+
+    /**
+     * @return the players in spectator mode, looked up when a message is sent
+     */
+    public @NotNull Audience getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Sends a message to the audience, converting it to a component only once
+     *
+     * @param audience the audience
+     * @param message  the message, nothing is sent if it is null or empty
+     */
+    public void sendMessage(@NotNull Audience audience, @Nullable String message) {
+        if (message == null || message.isEmpty()) {
+            return;
+        }
+        audience.sendMessage(toComponent(message));
+    }
+
+    /**
+     * Sends a message to the players with the permission, and to the console
+     *
+     * @param message    the message, nothing is sent if it is null or empty
+     * @param permission the permission
+     */
+    public void sendMessage(@Nullable String message, @NotNull String permission) {
+        if (message == null || message.isEmpty()) {
+            return;
+        }
+        Bukkit.broadcast(toComponent(message), permission);
+    }
+
+    /**
+     * Sends an action bar to the audience on the next flush, replacing the one waiting for it
+     *
+     * @param audience the audience
+     * @param message  the message, nothing is sent if it is null or empty
+     */
+    public void sendActionBar(@NotNull Audience audience, @Nullable String message) {
+        if (message == null || message.isEmpty()) {
+            return;
+        }
+        final Component component = toComponent(message);
+        if (plugin.getConfigManager().getActionBarInterval() <= 0) {
+            audience.sendActionBar(component);
+            return;
+        }
+        actionBars.put(audience, component);
+    }
+
+    /**
+     * Sends the action bars waiting for the flush
+     */
+    public void flushActionBars() {
+        for (final Audience audience : actionBars.keySet()) {
+            final Component component = actionBars.remove(audience);
+            if (component != null) {
+                audience.sendActionBar(component);
+            }
+        }
+    }
+}
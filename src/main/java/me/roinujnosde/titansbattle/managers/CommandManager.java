@@ -6,7 +6,9 @@ import co.aikar.commands.PaperCommandManager;
 import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.commands.ChallengeCommand;
 import me.roinujnosde.titansbattle.commands.ConfigCommands;
+import me.roinujnosde.titansbattle.commands.DebugCommand;
 import me.roinujnosde.titansbattle.commands.RankingCommand;
+import me.roinujnosde.titansbattle.commands.SeasonCommand;
 import me.roinujnosde.titansbattle.commands.TBCommands;
 import me.roinujnosde.titansbattle.commands.completions.AbstractAsyncCompletion;
 import me.roinujnosde.titansbattle.commands.completions.AbstractCompletion;
@@ -161,6 +163,8 @@ public class CommandManager extends PaperCommandManager {
         registerCommand(new ChallengeCommand());
         registerCommand(new ConfigCommands());
         registerCommand(new RankingCommand());
+        registerCommand(new DebugCommand());
+        registerCommand(new SeasonCommand());
     }
 
     private <T> void registerContext(final AbstractIssuerOnlyContextResolver<T> resolver) {
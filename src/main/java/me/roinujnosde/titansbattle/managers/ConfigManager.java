@@ -23,20 +23,37 @@
  */
 package me.roinujnosde.titansbattle.managers;
 
+import me.roinujnosde.titansbattle.BaseGameConfiguration;
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
+import me.roinujnosde.titansbattle.logging.DebugLogger.FileSettings;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Level;
+import me.roinujnosde.titansbattle.types.CommandPolicy;
+import me.roinujnosde.titansbattle.types.CommandPolicy.Decision;
 import me.roinujnosde.titansbattle.types.Event;
 import me.roinujnosde.titansbattle.types.Event.Frequency;
 import me.roinujnosde.titansbattle.utils.Helper;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.Location;
+import org.bukkit.command.Command;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
-import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static java.lang.String.format;
 
@@ -48,8 +65,12 @@ public final class ConfigManager {
     private final TitansBattle plugin = TitansBattle.getInstance();
     private final List<Event> events = new ArrayList<>();
     private FileConfiguration config;
+    private volatile Snapshot snapshot;
     private List<UUID> respawn = new ArrayList<>();
     private List<UUID> clearInventory = new ArrayList<>();
+    private final Map<BaseGameConfiguration, CommandPolicy> commandPolicies = new IdentityHashMap<>();
+    private @Nullable CommandPolicy everyoneCommandPolicy;
+    private @Nullable CommandPolicy spectatorCommandPolicy;
 
     public void save() {
         config.set("data.respawn", Helper.uuidListToStringList(respawn));
@@ -60,6 +81,9 @@ public final class ConfigManager {
     public void load() {
         plugin.reloadConfig();
         config = plugin.getConfig();
+        snapshot = Snapshot.from(config, plugin.getLogger());
+        invalidateCommandPolicies();
+        plugin.getDebugLogger().configure(snapshot.debugLevels(), snapshot.debugFile());
 
         if (isScheduler()) {
             events.clear();
@@ -79,7 +103,7 @@ public final class ConfigManager {
                     if (game == null) continue;
                     events.add(new Event(game, frequency, day, hour, minute));
                 } catch (final IllegalArgumentException ex) {
-                    plugin.getLogger().log(Level.SEVERE, format("Invalid event configuration for ID %s: %s", id, ex.getMessage()));
+                    plugin.getLogger().severe(format("Invalid event configuration for ID %s: %s", id, ex.getMessage()));
                 }
             }
         }
@@ -87,8 +111,11 @@ public final class ConfigManager {
         respawn = Helper.stringListToUuidList(config.getStringList("data.respawn"));
     }
 
+    /**
+     * @return true if debug is enabled for all the categories that do not set their own level
+     */
     public boolean isDebug() {
-        return config.getBoolean("debug");
+        return snapshot.debug();
     }
 
     /**
@@ -113,7 +140,7 @@ public final class ConfigManager {
     }
 
     public List<String> getBlockedCommandsEveryone() {
-        return config.getStringList("blocked_commands_everyone");
+        return snapshot.blockedCommandsEveryone();
     }
 
     /**
@@ -122,7 +149,7 @@ public final class ConfigManager {
      * @return the allowed commands
      */
     public List<String> getAllowedCommands() {
-        return config.getStringList("allowed_commands");
+        return snapshot.allowedCommands();
     }
 
     /**
@@ -133,6 +160,8 @@ public final class ConfigManager {
     @SuppressWarnings("unused")
     public void setAllowedCommands(@NotNull final List<String> allowedCommands) {
         config.set("allowed_commands", allowedCommands);
+        snapshot = Snapshot.from(config, plugin.getLogger());
+        invalidateCommandPolicies();
     }
 
     /**
@@ -141,7 +170,7 @@ public final class ConfigManager {
      * @return the allowed commands in spectator
      */
     public @NotNull List<String> getAllowedCommandsInSpectator() {
-        return config.getStringList("allowed_commands_in_spectator");
+        return snapshot.allowedCommandsInSpectator();
     }
 
     /**
@@ -152,6 +181,62 @@ public final class ConfigManager {
     @SuppressWarnings("unused")
     public void setAllowedCommandsInSpectator(@NotNull final List<String> allowedCommandsInSpectator) {
         config.set("allowed_commands_in_spectator", allowedCommandsInSpectator);
+        snapshot = Snapshot.from(config, plugin.getLogger());
+        invalidateCommandPolicies();
+    }
+
+    /**
+     * Gets the policy of the commands blocked for everyone while a game is happening
+     *
+     * @return the policy, that denies the blocked commands
+     */
+    public @NotNull CommandPolicy getEveryoneCommandPolicy() {
+        if (everyoneCommandPolicy == null) {
+            everyoneCommandPolicy = newCommandPolicy().add(getBlockedCommandsEveryone(), Decision.DENY);
+        }
+        return everyoneCommandPolicy;
+    }
+
+    /**
+     * Gets the policy of the commands of spectators
+     *
+     * @return the policy, that allows the commands allowed in spectator
+     */
+    public @NotNull CommandPolicy getSpectatorCommandPolicy() {
+        if (spectatorCommandPolicy == null) {
+            spectatorCommandPolicy = newCommandPolicy().add(getAllowedCommandsInSpectator(), Decision.ALLOW);
+        }
+        return spectatorCommandPolicy;
+    }
+
+    /**
+     * Gets the policy of the commands of the participants of a game, the commands allowed in battle with the ones
+     * allowed or blocked by the game on top of them
+     *
+     * @param game the game's configuration
+     * @return the policy
+     */
+    public @NotNull CommandPolicy getCommandPolicy(@NotNull final BaseGameConfiguration game) {
+        return commandPolicies.computeIfAbsent(game, g -> newCommandPolicy()
+                .add(getAllowedCommands(), Decision.ALLOW)
+                .add(g.getAllowedCommands(), Decision.ALLOW)
+                .add(g.getBlockedCommands(), Decision.DENY));
+    }
+
+    /**
+     * Discards the compiled command policies, so they are compiled again from the configuration when needed
+     */
+    public void invalidateCommandPolicies() {
+        commandPolicies.clear();
+        everyoneCommandPolicy = null;
+        spectatorCommandPolicy = null;
+    }
+
+    private @NotNull CommandPolicy newCommandPolicy() {
+        return new CommandPolicy(label -> {
+            final Command command = Bukkit.getCommandMap().getCommand(label);
+            return command != null ? command.getName() : label;
+        });
     }
 
     /**
@@ -204,21 +289,246 @@ public final class ConfigManager {
         return config.getBoolean("sql.use-mysql");
     }
 
+    /**
+     * @return true if warriors should be loaded when they are needed, instead of all of them on startup
+     */
+    public boolean isSqlLazyLoading() {
+        return config.getBoolean("sql.lazy-loading.enabled");
+    }
+
+    /**
+     * @return for how many seconds a page of the players ranking is cached, with lazy loading
+     */
+    public int getSqlRankingCacheSeconds() {
+        return config.getInt("sql.lazy-loading.ranking-cache-seconds", 30);
+    }
+
+    /**
+     * @return for how many minutes an unused warrior stays in memory
+     */
+    public int getSqlCacheIdleMinutes() {
+        return config.getInt("sql.cache.idle-minutes", 15);
+    }
+
+    /**
+     * @return how many warriors are kept in memory before the least recently used ones are removed
+     */
+    public int getSqlCacheMaxSize() {
+        return config.getInt("sql.cache.max-size", 5000);
+    }
+
+    public int getSqlPoolMaxSize() {
+        return Math.max(2, config.getInt("sql.pool.max-size", 4));
+    }
+
+    /**
+     * @return how long to wait for a connection, in seconds
+     */
+    public int getSqlPoolConnectTimeout() {
+        return config.getInt("sql.pool.connect-timeout", 10);
+    }
+
+    /**
+     * @return the query timeout of every statement, in seconds
+     */
+    public int getSqlPoolStatementTimeout() {
+        return config.getInt("sql.pool.statement-timeout", 30);
+    }
+
+    public String getSqlPoolValidationQuery() {
+        return config.getString("sql.pool.validation-query", "SELECT 1");
+    }
+
+    /**
+     * @return the query timeout of the validation query, in seconds
+     */
+    public int getSqlPoolValidationTimeout() {
+        return config.getInt("sql.pool.validation-timeout", 3);
+    }
+
+    /**
+     * @return true if the SQLite settings of this config should be used instead of the defaults
+     */
+    public boolean isSqliteTuned() {
+        return config.getBoolean("sql.sqlite.tuned", true);
+    }
+
+    public String getSqliteJournalMode() {
+        return config.getString("sql.sqlite.journal-mode", "WAL");
+    }
+
+    public String getSqliteSynchronous() {
+        return config.getString("sql.sqlite.synchronous", "NORMAL");
+    }
+
+    /**
+     * @return the page cache size of each connection, in pages or in KiB if negative
+     */
+    public int getSqliteCacheSize() {
+        return config.getInt("sql.sqlite.cache-size", -8000);
+    }
+
+    /**
+     * @return how many bytes of the database are memory mapped
+     */
+    public long getSqliteMmapSize() {
+        return Math.max(0, config.getLong("sql.sqlite.mmap-size", 67108864));
+    }
+
+    /**
+     * @return how long to wait for a locked database, in milliseconds
+     */
+    public int getSqliteBusyTimeout() {
+        return Math.max(0, config.getInt("sql.sqlite.busy-timeout", 10000));
+    }
+
+    /**
+     * @return how long to wait for the pending saves when the server stops, in seconds
+     */
+    public int getSqlShutdownTimeout() {
+        return Math.max(0, config.getInt("sql.shutdown-timeout", 30));
+    }
+
+    /**
+     * @return how often the modified data is saved, in seconds, or 0 if it is only saved after games
+     */
+    public int getSqlAutoSaveInterval() {
+        return Math.max(0, config.getInt("sql.autosave.interval", 300));
+    }
+
+    /**
+     * @return true if the statistics of each day should be saved too
+     */
+    public boolean isSqlHistoryEnabled() {
+        return config.getBoolean("sql.history.enabled", true);
+    }
+
+    /**
+     * @return for how many days the daily statistics are kept before being merged into weeks
+     */
+    public int getSqlHistoryDailyDays() {
+        return Math.max(1, config.getInt("sql.history.daily-days", 30));
+    }
+
+    /**
+     * @return for how many days the weekly statistics are kept before being merged into months
+     */
+    public int getSqlHistoryWeeklyDays() {
+        return Math.max(getSqlHistoryDailyDays(), config.getInt("sql.history.weekly-days", 180));
+    }
+
+    /**
+     * @return true if the statistics changes should be written to the journal until they are saved
+     */
+    public boolean isSqlJournalEnabled() {
+        return config.getBoolean("sql.journal.enabled", true);
+    }
+
+    /**
+     * @return how often the journal is written to the disk, in milliseconds
+     */
+    public int getSqlJournalFlushInterval() {
+        return Math.max(1, config.getInt("sql.journal.flush-interval", 100));
+    }
+
     public int getPageLimitRanking() {
-        return config.getInt("page-limit.ranking");
+        return snapshot.pageLimitRanking();
     }
 
     public String getDateFormat() {
-        return config.getString("date-format");
+        return snapshot.dateFormat();
     }
 
     public List<Integer> getBlockedProtocols() {
-        return config.getStringList("viaversion.block-protocols").stream()
-                .map(Integer::parseInt)
-                .toList();
+        return snapshot.blockedProtocols();
     }
 
     public String getTimeFormat() {
-        return config.getString("time-format", "HH:mm:ss");
+        return snapshot.timeFormat();
+    }
+
+    public boolean isNpcProxyEnabled() {
+        return snapshot.npcProxyEnabled();
+    }
+
+    /**
+     * @return the quit messages that do not create an NPC proxy, without colors and in lower case
+     */
+    public @NotNull List<String> getNpcProxyBypassReasons() {
+        return snapshot.npcProxyBypassReasons();
+    }
+
+    public boolean isDisableFfMessages() {
+        return snapshot.disableFfMessages();
+    }
+
+    /**
+     * @return the ticks between the flushes of the action bars, or 0 if they are sent right away
+     */
+    public int getActionBarInterval() {
+        return snapshot.actionBarInterval();
+    }
+
+    /**
+     * The settings read on every event or command, copied from config.yml when it is loaded
+     * <p>
+     * A new snapshot replaces the old one on reload, so async threads see either the old settings or the new ones.
+     */
+    private record Snapshot(boolean debug, @Unmodifiable List<String> allowedCommands,
+                            @Unmodifiable List<String> allowedCommandsInSpectator,
+                            @Unmodifiable List<String> blockedCommandsEveryone,
+                            @Unmodifiable List<Integer> blockedProtocols, int pageLimitRanking, String dateFormat,
+                            String timeFormat, boolean npcProxyEnabled,
+                            @Unmodifiable List<String> npcProxyBypassReasons, boolean disableFfMessages,
+                            @Unmodifiable Map<Category, Level> debugLevels, @Nullable FileSettings debugFile,
+                            int actionBarInterval) {
+
+        private static @NotNull Snapshot from(@NotNull final FileConfiguration config, @NotNull final Logger logger) {
+            final List<Integer> blockedProtocols = new ArrayList<>();
+            for (final String protocol : config.getStringList("viaversion.block-protocols")) {
+                try {
+                    blockedProtocols.add(Integer.parseInt(protocol.trim()));
+                } catch (final NumberFormatException ex) {
+                    logger.warning(format("Invalid protocol in viaversion.block-protocols: %s", protocol));
+                }
+            }
+            final List<String> bypassReasons = config.getStringList("battle.npcProxy.bypass-reasons").stream()
+                    .filter(Objects::nonNull)
+                    .map(s -> ChatColor.stripColor(s.trim()).toLowerCase())
+                    .filter(s -> !s.isEmpty())
+                    .toList();
+            final Map<Category, Level> debugLevels = new EnumMap<>(Category.class);
+            final Level defaultLevel = config.getBoolean("debug") ? Level.DEBUG : Level.OFF;
+            for (final Category category : Category.values()) {
+                final String level = config.getString("debug-log.categories." + category.getKey());
+                try {
+                    debugLevels.put(category, level != null ? Level.valueOf(level.toUpperCase(Locale.ROOT))
+                            : defaultLevel);
+                } catch (final IllegalArgumentException ex) {
+                    logger.warning(format("Invalid level for debug-log.categories.%s: %s", category.getKey(), level));
+                    debugLevels.put(category, defaultLevel);
+                }
+            }
+            FileSettings debugFile = null;
+            if (config.getBoolean("debug-log.file.enabled", true)) {
+                debugFile = new FileSettings(Math.max(1, config.getLong("debug-log.file.max-size", 5120)) * 1024,
+                        config.getInt("debug-log.file.max-files", 3),
+                        config.getInt("debug-log.file.buffer-size", 8192));
+            }
+            return new Snapshot(config.getBoolean("debug"),
+                    List.copyOf(config.getStringList("allowed_commands")),
+                    List.copyOf(config.getStringList("allowed_commands_in_spectator")),
+                    List.copyOf(config.getStringList("blocked_commands_everyone")),
+                    List.copyOf(blockedProtocols),
+                    config.getInt("page-limit.ranking"),
+                    config.getString("date-format"),
+                    config.getString("time-format", "HH:mm:ss"),
+                    config.getBoolean("battle.npcProxy.enabled", true),
+                    bypassReasons,
+                    config.getBoolean("disable-ff-messages", true),
+                    Collections.unmodifiableMap(debugLevels),
+                    debugFile,
+                    Math.max(0, config.getInt("action-bar-interval", 2)));
+        }
     }
 }
@@ -23,14 +23,31 @@
  */
 package me.roinujnosde.titansbattle.managers;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.database.BatchWriter;
+import me.roinujnosde.titansbattle.database.ConnectionPool;
+import me.roinujnosde.titansbattle.database.DatabaseExecutor;
+import me.roinujnosde.titansbattle.database.Migrations;
+import me.roinujnosde.titansbattle.database.Migrator;
+import me.roinujnosde.titansbattle.database.SeasonArchiver;
+import me.roinujnosde.titansbattle.database.SqlDialect;
+import me.roinujnosde.titansbattle.database.SqliteBenchmark;
+import me.roinujnosde.titansbattle.database.StatHistory;
+import me.roinujnosde.titansbattle.database.StatJournal;
+import me.roinujnosde.titansbattle.database.Table;
+import me.roinujnosde.titansbattle.database.WarriorCache;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
+import me.roinujnosde.titansbattle.ranking.Leaderboard;
+import me.roinujnosde.titansbattle.ranking.LeaderboardIndex;
+import me.roinujnosde.titansbattle.ranking.RankingCache;
+import me.roinujnosde.titansbattle.ranking.RankingEntry;
+import me.roinujnosde.titansbattle.types.Counter;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
+import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.GroupData;
+import me.roinujnosde.titansbattle.types.StatChanges;
 import me.roinujnosde.titansbattle.types.Warrior;
 import me.roinujnosde.titansbattle.types.Winners;
-import me.roinujnosde.titansbattle.utils.Helper;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -38,342 +55,772 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * @author RoinujNosde
  */
 public class DatabaseManager {
 
+    private static final String JOURNAL_CHECKPOINT = "stats";
+    // how long save requests are gathered before a single save runs, in ticks
+    private static final long SAVE_REQUEST_DELAY = 20L;
+
     private final TitansBattle plugin = TitansBattle.getInstance();
     private final Map<String, GroupData> groups = new HashMap<>();
-    private final Map<UUID, Warrior> warriors = new HashMap<>();
-    private final List<Winners> winners = new ArrayList<>();
-    private Connection connection;
+    private final WarriorCache warriors = new WarriorCache(Integer.MAX_VALUE);
+    private final RankingCache rankingCache = new RankingCache(0);
+    private final NavigableMap<LocalDate, Winners> winners = new TreeMap<>();
+    private final Executor mainThread = this::runSync;
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final AtomicBoolean saveRequested = new AtomicBoolean();
+    private final AtomicInteger runningSaves = new AtomicInteger();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong failedSaves = new AtomicLong();
+    private final AtomicLong skippedSaves = new AtomicLong();
+    private final AtomicBoolean archivingSeason = new AtomicBoolean();
+    // while the totals of the last season are not archived, saving would add the new changes to them
+    private volatile boolean seasonIncomplete;
+    // only the modified entities are visited by the saves
+    private final Map<UUID, Warrior> dirtyWarriors = new HashMap<>();
+    private final Set<String> dirtyGroups = new HashSet<>();
+    // saves that failed, written again before the next ones, so the checkpoint never skips their journal segments
+    private final Deque<BatchWriter> failedWrites = new ConcurrentLinkedDeque<>();
+    private volatile BatchWriter.FlushResult lastSave;
+    private final LeaderboardIndex<UUID> warriorsLeaderboards = new LeaderboardIndex<>(Counter.KILLS, Counter.DEATHS,
+            Counter.VICTORIES);
+    private final LeaderboardIndex<String> groupsLeaderboards = new LeaderboardIndex<>(Counter.KILLS, Counter.DEATHS,
+            Counter.VICTORIES, Counter.DEFEATS);
+    private ConnectionPool pool;
+    private DatabaseExecutor executor;
+    private @Nullable StatJournal journal;
+    private volatile int storedWarriors;
+    private boolean lazyLoading;
+    private boolean historyEnabled;
+    private @Nullable LocalDate lastCompaction;
+    // incremented when a season starts, so data loaded before it is discarded
+    private int seasonEpoch;
 
     public void setup() {
-        try (final Statement statement = getConnection().createStatement()) {
-            statement.execute("CREATE TABLE IF NOT EXISTS tb_warriors "
-                    + "(displayname varchar(30) NOT NULL,"
-                    + " uuid varchar(255) NOT NULL,"
-                    + " kills int NOT NULL,"
-                    + " deaths int NOT NULL,"
-                    + " victories int NOT NULL,"
-                    + " game varchar(20) NOT NULL);");
-            statement.execute("CREATE TABLE IF NOT EXISTS tb_groups"
-                    + "(identification varchar(255) NOT NULL,"
-                    + " kills int NOT NULL,"
-                    + " deaths int NOT NULL,"
-                    + " victories int NOT NULL,"
-                    + " defeats int NOT NULL,"
-                    + " game varchar(20) NOT NULL);");
-            statement.execute("CREATE TABLE IF NOT EXISTS tb_winners"
-                    + "(date varchar(10) NOT NULL,"
-                    + " killer varchar(255),"
-                    + " player_winners text,"
-                    + " winner_group varchar(255),"
-                    + " game varchar(20) NOT NULL);");
+        // changing it requires a restart, the warriors in memory depend on it
+        lazyLoading = plugin.getConfigManager().isSqlLazyLoading();
+        historyEnabled = plugin.getConfigManager().isSqlHistoryEnabled();
+        warriors.setMaxSize(plugin.getConfigManager().getSqlCacheMaxSize());
+        rankingCache.setTtlMillis(TimeUnit.SECONDS.toMillis(plugin.getConfigManager().getSqlRankingCacheSeconds()));
+        start();
+        try {
+            new Migrator(pool, plugin.getLogger()).migrate(new Migrations(getDialect(), plugin.getLogger()).getAll());
         } catch (final SQLException ex) {
-            plugin.debug("Error while creating the tables: " + ex.getMessage(), false);
+            plugin.debug("Error while updating the database: " + ex.getMessage(), false);
+        }
+        // the journal only holds changes made after the season started, so they are replayed after the archive
+        final boolean archived = resumeSeason();
+        if (plugin.getConfigManager().isSqlJournalEnabled()) {
+            if (archived) {
+                openJournal();
+            } else {
+                plugin.getLogger().warning("The journal is disabled until the archive of the season is finished");
+            }
+        }
+        compactHistory();
+    }
+
+    /**
+     * Saves the changes left in the journal by the last run, which was not stopped properly, and starts journaling
+     */
+    private void openJournal() {
+        final StatJournal journal = new StatJournal(new File(plugin.getDataFolder(), "journal"), plugin.getLogger());
+        final JournalReplay replay = new JournalReplay();
+        try (final Connection connection = pool.getConnection(0)) {
+            final long checkpoint = readJournalCheckpoint(connection);
+            final long last = journal.recover(checkpoint, replay);
+            if (last > checkpoint) {
+                final BatchWriter writer = new BatchWriter(getDialect());
+                replay.addTo(writer);
+                writer.add(Table.JOURNAL, JOURNAL_CHECKPOINT, last);
+                writer.flush(connection);
+                plugin.getLogger().info(String.format("Recovered %d unsaved changes from the journal",
+                        replay.getRecords()));
+            }
+            journal.open(last, plugin.getConfigManager().getSqlJournalFlushInterval());
+            this.journal = journal;
+        } catch (final SQLException | IOException ex) {
+            // the segments are kept, so they are recovered on the next start
+            journal.close();
+            plugin.debug("Error while recovering the journal, it is disabled: " + ex.getMessage(), false);
         }
     }
 
-    private void start() throws SQLException {
+    private long readJournalCheckpoint(@NotNull final Connection connection) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(
+                "SELECT segment FROM tb_journal WHERE name = ?;")) {
+            statement.setString(1, JOURNAL_CHECKPOINT);
+            try (final ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void start() {
+        final ConfigManager cm = plugin.getConfigManager();
+        final ConnectionPool.Settings settings = new ConnectionPool.Settings(cm.getSqlPoolMaxSize(),
+                TimeUnit.SECONDS.toMillis(cm.getSqlPoolConnectTimeout()), cm.getSqlPoolStatementTimeout(),
+                cm.getSqlPoolValidationQuery(), cm.getSqlPoolValidationTimeout());
+        pool = new ConnectionPool(this::openConnection, settings);
+        // one connection is reserved for the writer
+        executor = new DatabaseExecutor(pool, settings.maxSize() - 1);
+    }
+
+    private @NotNull Connection openConnection() throws SQLException {
         final ConfigManager cm = plugin.getConfigManager();
         final String database = cm.getSqlDatabase();
         if (cm.isSqlUseMysql()) {
+            final long connectTimeout = TimeUnit.SECONDS.toMillis(cm.getSqlPoolConnectTimeout());
+            final Properties properties = new Properties();
             final String hostname = cm.getSqlHostname();
             final int port = cm.getSqlPort();
-            final String username = cm.getSqlUsername();
-            final String password = cm.getSqlPassword();
-            connection = DriverManager.getConnection("jdbc:mysql://" + hostname + ":" + port + "/" + database +
-                    "?useSSL=false", username, password);
-        } else {
-            final File dbFile = new File(plugin.getDataFolder().getAbsolutePath() + File.separator + database + ".db");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+            properties.setProperty("user", cm.getSqlUsername());
+            properties.setProperty("password", cm.getSqlPassword());
+            properties.setProperty("connectTimeout", String.valueOf(connectTimeout));
+            return DriverManager.getConnection("jdbc:mysql://" + hostname + ":" + port + "/" + database +
+                    "?useSSL=false&rewriteBatchedStatements=true", properties);
         }
+        final File dbFile = new File(plugin.getDataFolder().getAbsolutePath() + File.separator + database + ".db");
+        return DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath(),
+                getSqliteProperties(cm.isSqliteTuned()));
     }
 
-    private Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            start();
+    private @NotNull Properties getSqliteProperties(final boolean tuned) {
+        final ConfigManager cm = plugin.getConfigManager();
+        final Properties properties = new Properties();
+        if (!tuned) {
+            properties.setProperty("busy_timeout", String.valueOf(TimeUnit.SECONDS.toMillis(
+                    cm.getSqlPoolConnectTimeout())));
+            return properties;
         }
-        return connection;
+        properties.setProperty("busy_timeout", String.valueOf(cm.getSqliteBusyTimeout()));
+        properties.setProperty("journal_mode", cm.getSqliteJournalMode());
+        properties.setProperty("synchronous", cm.getSqliteSynchronous());
+        properties.setProperty("cache_size", String.valueOf(cm.getSqliteCacheSize()));
+        properties.setProperty("mmap_size", String.valueOf(cm.getSqliteMmapSize()));
+        return properties;
+    }
+
+    /**
+     * Compares the SQLite defaults with the configured settings, using a separate database file
+     *
+     * @param statements how many statements to run with each one
+     * @return the results, completed on the main thread
+     */
+    public @NotNull CompletableFuture<SqliteBenchmark.Result> benchmarkSqlite(final int statements) {
+        final SqliteBenchmark benchmark = new SqliteBenchmark(new File(plugin.getDataFolder(), "benchmark.db"));
+        final Properties defaults = getSqliteProperties(false);
+        final Properties tuned = getSqliteProperties(true);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return benchmark.run(defaults, tuned, statements);
+            } catch (final SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable))
+                .thenApplyAsync(Function.identity(), mainThread);
     }
 
+    private @NotNull Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * Saves the modified data and waits for every pending save, up to the configured timeout, before closing the
+     * connections. Scheduled tasks don't run while the server stops, so this must be the last save.
+     */
     public void close() {
-        if (connection == null) {
-            return;
+        if (executor != null) {
+            saveAll();
+            final int timeout = plugin.getConfigManager().getSqlShutdownTimeout();
+            if (!executor.shutdown(timeout, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning(String.format("Timed out after %d seconds while waiting for %d saves",
+                        timeout, runningSaves.get()));
+            }
+            reportUnsaved();
         }
-        try {
-            if (connection.isClosed()) {
+        if (pool != null) {
+            pool.close();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @NotNull
+    public GroupData getGroupData(@NotNull final String id) {
+        return groups.computeIfAbsent(id, k -> track(k, new GroupData()));
+    }
+
+    private @NotNull GroupData track(@NotNull final String id, @NotNull final GroupData data) {
+        data.setStatListener((game, counter, delta) -> {
+            groupsLeaderboards.update(id, game, c -> data.getStat(game, c));
+            if (delta == 0) {
                 return;
             }
-            connection.close();
-        } catch (final SQLException ex) {
-            plugin.debug("Error while closing connection: " + ex.getMessage(), true);
+            dirtyGroups.add(id);
+            if (journal != null) {
+                journal.appendGroup(id, game, counter, delta);
+            }
+        });
+        data.getGames().forEach(game -> groupsLeaderboards.update(id, game, c -> data.getStat(game, c)));
+        return data;
+    }
+
+    private @NotNull Warrior track(@NotNull final Warrior warrior) {
+        final UUID uuid = warrior.getUniqueId();
+        warrior.setStatListener((game, counter, delta) -> {
+            // with lazy loading, the database sorts the rankings
+            if (!isLazyLoading()) {
+                warriorsLeaderboards.update(uuid, game, c -> warrior.getStat(game, c));
+            }
+            if (delta == 0) {
+                return;
+            }
+            dirtyWarriors.put(uuid, warrior);
+            if (journal == null) {
+                return;
+            }
+            final String name = warrior.toPlayer().getName();
+            // like in the saves, warriors without a name are kept in memory only
+            if (name != null) {
+                journal.appendWarrior(uuid, name, game, counter, delta);
+            }
+        });
+        if (!isLazyLoading()) {
+            warrior.getGames().forEach(game -> warriorsLeaderboards.update(uuid, game,
+                    c -> warrior.getStat(game, c)));
         }
+        return warrior;
+    }
+
+    private @NotNull Winners track(@NotNull final LocalDate date, @NotNull final Winners w) {
+        w.setChangeListener(game -> {
+            if (journal != null) {
+                journal.appendWinners(date, game, w.getKiller(game), w.getWinnerGroup(game),
+                        w.getPlayerWinners(game));
+            }
+        });
+        return w;
     }
 
-    private void update(final Winners winners) {
-        final HashSet<GameConfiguration> updated = new HashSet<>();
+    /**
+     * Gets the players ranking kept in memory. It is not available with lazy loading.
+     *
+     * @param game    the game
+     * @param counter the counter to sort by, players have no defeats so they are sorted by victories instead
+     * @return the UUIDs of the players that have statistics in the game, sorted, or null if there are none
+     */
+    public @Nullable Leaderboard<UUID> getWarriorsLeaderboard(@NotNull final String game,
+                                                              @NotNull final Counter counter) {
+        return warriorsLeaderboards.get(game, counter == Counter.DEFEATS ? Counter.VICTORIES : counter);
+    }
 
-        final String update = "UPDATE tb_winners SET killer=?, player_winners=?, winner_group=? WHERE date=? AND game=?;";
-        try (final PreparedStatement statement = getConnection().prepareStatement(update)) {
-            for (final GameConfiguration game : getGames()) {
-                if (winners.isEmpty(game.getName())) {
-                    continue;
-                }
-                setValues(winners, statement, game);
+    /**
+     * @param game    the game
+     * @param counter the counter to sort by
+     * @return the IDs of the groups that have statistics in the game, sorted, or null if there are none
+     */
+    public @Nullable Leaderboard<String> getGroupsLeaderboard(@NotNull final String game,
+                                                              @NotNull final Counter counter) {
+        return groupsLeaderboards.get(game, counter);
+    }
 
-                final int count = statement.executeUpdate();
-                if (count != 0) {
-                    updated.add(game);
-                }
+    /**
+     * Removes the group from the rankings kept in memory, to be called when it no longer exists. Its statistics are
+     * kept, and it is added back if they change.
+     *
+     * @param id the group's ID
+     */
+    public void removeFromGroupsLeaderboards(@NotNull final String id) {
+        groupsLeaderboards.remove(id);
+    }
+
+    @NotNull
+    public Warrior getWarrior(@NotNull final OfflinePlayer player) {
+        final Warrior warrior = getWarrior(player.getUniqueId());
+        if (player instanceof final Player onlinePlayer) {
+            warrior.setOnlinePlayer(onlinePlayer);
+        }
+        return warrior;
+    }
+
+    @NotNull
+    public Warrior getWarrior(@NotNull final UUID uuid) {
+        final Warrior cached = warriors.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        final OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(uuid);
+        final Warrior created = new Warrior(offlinePlayer, plugin::getGroupManager);
+        final Warrior warrior = warriors.putIfAbsent(created);
+        if (warrior == created) {
+            track(warrior);
+            if (isLazyLoading()) {
+                loadWarrior(warrior);
             }
-        } catch (final SQLException ex) {
-            plugin.debug("Error while saving the winners: " + ex.getMessage(), false);
+            // without lazy loading, the warriors with statistics can't be evicted and may be more than the maximum
+            // size, so only the periodic eviction runs, otherwise every new warrior would scan the whole cache
+            if (isLazyLoading() && warriors.isFull() && evictionScheduled.compareAndSet(false, true)) {
+                // the eviction filter checks the games, so it runs on the main thread
+                Bukkit.getScheduler().runTask(plugin, this::evictWarriors);
+            }
+        }
+        if (offlinePlayer instanceof final Player player) {
+            warrior.setOnlinePlayer(player);
         }
+        return warrior;
+    }
+
+    public @NotNull WarriorCache.Stats getWarriorCacheStats() {
+        return warriors.getStats();
+    }
 
-        final String insert = "INSERT INTO tb_winners (killer, player_winners, winner_group, date, game) VALUES (?, ?, ?, ?, ?);";
-        try (final PreparedStatement statement = getConnection().prepareStatement(insert)) {
-            for (final GameConfiguration game : getGames()) {
-                if (!updated.contains(game) && !winners.isEmpty(game.getName())) {
-                    setValues(winners, statement, game);
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
 
-                    statement.execute();
+    private void loadWarrior(@NotNull final Warrior warrior) {
+        final String sql = "SELECT * FROM tb_warriors WHERE uuid = ?;";
+        final int epoch = seasonEpoch;
+        // submitted as a write, so the query sees the data before any save that includes this warrior's changes
+        executor.write(connection -> {
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, warrior.getUniqueId().toString());
+                try (final ResultSet rs = statement.executeQuery()) {
+                    return readWarriors(rs).get(warrior.getUniqueId());
                 }
             }
-        } catch (final SQLException ex) {
-            plugin.debug("Error while saving the winners: " + ex.getMessage(), false);
-        }
-    }
-
-    private void setValues(@NotNull final Winners winners, final PreparedStatement statement, @NotNull final GameConfiguration game) throws SQLException {
-        final String date = new SimpleDateFormat("dd/MM/yyyy").format(winners.getDate());
-
-        final String name = game.getName();
-        String killer = null;
-        if (winners.getKiller(name) != null) {
-            killer = winners.getKiller(name).toString();
-        }
-        final String playerWinners;
-        final JsonArray ja = new JsonArray();
-        if (winners.getPlayerWinners(name) != null) {
-            winners.getPlayerWinners(name).stream().map(UUID::toString).forEach(ja::add);
-        }
-        playerWinners = new Gson().toJson(ja);
-        final String winnerGroup = winners.getWinnerGroup(name);
-
-        statement.setString(1, killer);
-        statement.setString(2, playerWinners);
-        statement.setString(3, winnerGroup);
-        statement.setString(4, date);
-        statement.setString(5, name);
-    }
-
-    private void update(@NotNull final String id, @NotNull final GroupData data) {
-        final HashSet<GameConfiguration> updated = new HashSet<>();
-
-        final String update = "UPDATE tb_groups SET kills=?, deaths=?, victories=?,"
-                + " defeats=? WHERE identification=? AND game=?;";
-        try (final PreparedStatement statement = getConnection().prepareStatement(update)) {
-            for (final GameConfiguration game : getGames()) {
-                final String gameName = game.getName();
-                final int kills = data.getKills(gameName);
-                final int deaths = data.getDeaths(gameName);
-                final int victories = data.getVictories(gameName);
-                final int defeats = data.getDefeats(gameName);
-                statement.setInt(1, kills);
-                statement.setInt(2, deaths);
-                statement.setInt(3, victories);
-                statement.setInt(4, defeats);
-                statement.setString(5, id);
-                statement.setString(6, gameName);
-
-                final int count = statement.executeUpdate();
-                if (count != 0) {
-                    updated.add(game);
-                }
+        }).whenCompleteAsync((data, ex) -> {
+            if (ex != null) {
+                plugin.debug(String.format("Error while loading the data of %s: %s", warrior.getUniqueId(),
+                        DatabaseExecutor.unwrap(ex).getMessage()), false);
+                return;
             }
-        } catch (final SQLException ex) {
-            plugin.debug("Error while saving a Group: " + ex.getMessage(), false);
-        }
-        final String insert = "INSERT INTO tb_groups (identification, kills, deaths, victories, game, defeats) VALUES (?,?,?,?,?,?);";
-        try (final PreparedStatement statement = getConnection().prepareStatement(insert)) {
-            for (final GameConfiguration game : getGames()) {
-                if (!updated.contains(game)) {
-                    final String gameName = game.getName();
-                    final int kills = data.getKills(gameName);
-                    final int deaths = data.getDeaths(gameName);
-                    final int victories = data.getVictories(gameName);
-                    final int defeats = data.getDefeats(gameName);
-                    statement.setString(1, id);
-                    statement.setInt(2, kills);
-                    statement.setInt(3, deaths);
-                    statement.setInt(4, victories);
-                    statement.setString(5, gameName);
-                    statement.setInt(6, defeats);
-
-                    statement.execute();
-                }
+            // the statistics of the last season were reset meanwhile
+            if (data != null && epoch == seasonEpoch) {
+                warrior.addStoredStats(data.get(Counter.KILLS), data.get(Counter.DEATHS), data.get(Counter.VICTORIES));
             }
-        } catch (final SQLException ex) {
-            plugin.debug("Error while saving a Group: " + ex.getMessage(), false);
-        }
+        }, mainThread);
     }
 
-    private void update(@NotNull final Warrior warrior) {
-        final ArrayList<GameConfiguration> updated = new ArrayList<>();
-        final String uuid = warrior.toPlayer().getUniqueId().toString();
-        final String name = warrior.toPlayer().getName();
-        if (name == null) {
-            plugin.debug(String.format("Name not found for %s", uuid));
+    /**
+     * Removes from memory the warriors that are offline, not playing and were not used recently, or the least
+     * recently used ones if the cache is full, saving their pending changes first. Without lazy loading, only warriors
+     * without statistics are removed, as the others are needed by the rankings.
+     */
+    public void evictWarriors() {
+        evictionScheduled.set(false);
+        final long idleMillis = TimeUnit.MINUTES.toMillis(plugin.getConfigManager().getSqlCacheIdleMinutes());
+        final List<Warrior> evicted = warriors.evict(idleMillis, this::canEvict);
+        if (evicted.isEmpty()) {
             return;
         }
+        plugin.getDebugLogger().debug(Category.PERSISTENCE, "Evicted {} warriors", evicted.size());
+        evicted.forEach(w -> warriorsLeaderboards.remove(w.getUniqueId()));
+        // everything is saved, as the checkpoint of the journal covers the changes of every warrior
+        save(evicted);
+    }
+
+    private boolean canEvict(@NotNull final Warrior warrior) {
+        if (warrior.toOnlinePlayer() != null || plugin.getBaseGameFrom(warrior) != null) {
+            return false;
+        }
+        if (!isLazyLoading()) {
+            return !warrior.isModified() && warrior.getTotalKills() == 0 && warrior.getTotalDeaths() == 0
+                    && warrior.getTotalVictories() == 0;
+        }
+        // warriors without a name can't be saved yet, so they are kept if modified
+        return !warrior.isModified() || warrior.toPlayer().getName() != null;
+    }
+
+    /**
+     * Gets a page of the players ranking, sorted by the database. Meant for lazy loading, where not every warrior is
+     * in memory. Changes that were not saved yet are not considered, and pages are cached for a few seconds.
+     *
+     * @param game   the game
+     * @param order  the counter to sort by, ties are sorted by victories
+     * @param offset how many entries to skip
+     * @param limit  the maximum number of entries
+     * @return the entries, completed on the main thread, empty if the query fails
+     */
+    public @NotNull CompletableFuture<List<RankingEntry>> getWarriorsRanking(@NotNull final String game,
+                                                                            @NotNull final Counter order,
+                                                                            final int offset, final int limit) {
+        return rankingCache.get(game, order, offset, limit, () -> queryWarriorsRanking(game, order, offset, limit))
+                .exceptionally(ex -> {
+                    plugin.debug("Error while querying the ranking: " + DatabaseExecutor.unwrap(ex).getMessage(),
+                            false);
+                    return Collections.emptyList();
+                }).thenApplyAsync(Function.identity(), mainThread);
+    }
 
-        final String update = "UPDATE tb_warriors SET kills=?, deaths=?, victories=?, displayname=? WHERE uuid=? AND game=?;";
-        try (final PreparedStatement statement = getConnection().prepareStatement(update)) {
-            for (final GameConfiguration game : getGames()) {
-                final String gameName = game.getName();
-                final int kills = warrior.getKills(gameName);
-                final int deaths = warrior.getDeaths(gameName);
-                final int victories = warrior.getVictories(gameName);
-                statement.setInt(1, kills);
-                statement.setInt(2, deaths);
-                statement.setInt(3, victories);
-                statement.setString(4, name);
-                statement.setString(5, uuid);
-                statement.setString(6, gameName);
-
-                final int count = statement.executeUpdate();
-                if (count != 0) {
-                    updated.add(game);
+    private @NotNull CompletableFuture<List<RankingEntry>> queryWarriorsRanking(@NotNull final String game,
+                                                                               @NotNull final Counter order,
+                                                                               final int offset, final int limit) {
+        final String column = order == Counter.DEFEATS ? Counter.VICTORIES.getColumn() : order.getColumn();
+        final String sql = "SELECT displayname, kills, deaths, victories FROM tb_warriors WHERE game = ? ORDER BY "
+                + column + " DESC, victories DESC LIMIT ? OFFSET ?;";
+        return executor.read(connection -> {
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, game);
+                statement.setInt(2, limit);
+                statement.setInt(3, offset);
+                final List<RankingEntry> entries = new ArrayList<>(limit);
+                try (final ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        entries.add(new RankingEntry(rs.getString("displayname"), rs.getInt("victories"),
+                                rs.getInt("kills"), rs.getInt("deaths"), 0));
+                    }
                 }
+                return Collections.unmodifiableList(entries);
             }
+        });
+    }
 
-        } catch (final SQLException ex) {
-            plugin.debug("Error while saving a Warrior: " + ex.getMessage(), false);
-        }
-
-        final String insert = "INSERT INTO tb_warriors (uuid, kills, deaths, victories, game, displayname) VALUES (?, ?, ?, ?, ?, ?)";
-        try (final PreparedStatement statement = getConnection().prepareStatement(insert)) {
-            for (final GameConfiguration game : getGames()) {
-                if (!updated.contains(game)) {
-                    final String gameName = game.getName();
-                    final int kills = warrior.getKills(gameName);
-                    final int deaths = warrior.getDeaths(gameName);
-                    final int victories = warrior.getVictories(gameName);
-                    statement.setString(1, uuid);
-                    statement.setInt(2, kills);
-                    statement.setInt(3, deaths);
-                    statement.setInt(4, victories);
-                    statement.setString(5, gameName);
-                    statement.setString(6, name);
-
-                    statement.execute();
+    /**
+     * Gets a page of the players ranking counting only the statistics of the last days. Old days are merged into
+     * weeks and months, which are only counted if they start inside the window.
+     *
+     * @param game   the game
+     * @param order  the counter to sort by, ties are sorted by victories
+     * @param days   how many days to count, including today
+     * @param offset how many entries to skip
+     * @param limit  the maximum number of entries
+     * @return the entries, completed on the main thread, empty if the query fails
+     */
+    public @NotNull CompletableFuture<List<RankingEntry>> getWarriorsHistoryRanking(@NotNull final String game,
+                                                                                   @NotNull final Counter order,
+                                                                                   final int days, final int offset,
+                                                                                   final int limit) {
+        final String column = order == Counter.DEFEATS ? Counter.VICTORIES.getColumn() : order.getColumn();
+        final String sql = "SELECT h.uuid, (SELECT w.displayname FROM tb_warriors w WHERE w.uuid = h.uuid LIMIT 1) "
+                + "AS displayname, SUM(h.kills) AS kills, SUM(h.deaths) AS deaths, SUM(h.victories) AS victories "
+                + "FROM tb_warrior_history h WHERE h.game = ? AND h.start >= ? GROUP BY h.uuid ORDER BY " + column
+                + " DESC, victories DESC LIMIT ? OFFSET ?;";
+        final String start = LocalDate.now().minusDays(Math.max(1, days) - 1L).toString();
+        return executor.read(connection -> {
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, game);
+                statement.setString(2, start);
+                statement.setInt(3, limit);
+                statement.setInt(4, offset);
+                final List<RankingEntry> entries = new ArrayList<>(limit);
+                try (final ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        final String name = rs.getString("displayname");
+                        entries.add(new RankingEntry(name != null ? name : rs.getString("uuid"),
+                                rs.getInt("victories"), rs.getInt("kills"), rs.getInt("deaths"), 0));
+                    }
+                }
+                return entries;
+            }
+        }).exceptionally(ex -> {
+            plugin.debug("Error while querying the history: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
+            return Collections.emptyList();
+        }).thenApplyAsync(Function.identity(), mainThread);
+    }
+
+    /**
+     * Gets a page of the groups ranking counting only the statistics of the last days, like
+     * {@link #getWarriorsHistoryRanking(String, Counter, int, int, int)}. Groups that no longer exist are skipped.
+     *
+     * @param game   the game
+     * @param order  the counter to sort by, ties are sorted by victories
+     * @param days   how many days to count, including today
+     * @param offset how many entries to skip
+     * @param limit  the maximum number of entries
+     * @return the entries, completed on the main thread, empty if the query fails
+     */
+    public @NotNull CompletableFuture<List<RankingEntry>> getGroupsHistoryRanking(@NotNull final String game,
+                                                                                 @NotNull final Counter order,
+                                                                                 final int days, final int offset,
+                                                                                 final int limit) {
+        final String sql = "SELECT identification, SUM(kills) AS kills, SUM(deaths) AS deaths, SUM(victories) AS "
+                + "victories, SUM(defeats) AS defeats FROM tb_group_history WHERE game = ? AND start >= ? GROUP BY "
+                + "identification ORDER BY " + order.getColumn() + " DESC, victories DESC;";
+        final String start = LocalDate.now().minusDays(Math.max(1, days) - 1L).toString();
+        final Set<String> groupIds = getGroupIds();
+        return executor.read(connection -> {
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, game);
+                statement.setString(2, start);
+                final Map<String, RankingEntry> entries = new LinkedHashMap<>();
+                int skipped = 0;
+                try (final ResultSet rs = statement.executeQuery()) {
+                    while (rs.next() && entries.size() < limit) {
+                        final String id = rs.getString("identification");
+                        // the disbanded groups are skipped before paging, so the pages stay full
+                        if (!groupIds.contains(id) || skipped++ < offset) {
+                            continue;
+                        }
+                        entries.put(id, new RankingEntry(id, rs.getInt("victories"), rs.getInt("kills"),
+                                rs.getInt("deaths"), rs.getInt("defeats")));
+                    }
                 }
+                return entries;
+            }
+        }).exceptionally(ex -> {
+            plugin.debug("Error while querying the history: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
+            return Collections.emptyMap();
+        }).thenApplyAsync(this::withGroupNames, mainThread);
+    }
+
+    /**
+     * Ends the current season: the totals are archived as a new season and every counter starts from 0 again
+     * <p>
+     * The modified data is saved first. The archive runs on the writer thread after that save, and the saves made
+     * meanwhile wait for it, so they only count for the new season. It is split in small transactions, so other
+     * connections are never locked out for long.
+     *
+     * @return the id of the archived season, completed on the main thread
+     */
+    public @NotNull CompletableFuture<Integer> startSeason() {
+        if (seasonIncomplete || !archivingSeason.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A season is already being archived"));
+        }
+        saveAll();
+        seasonIncomplete = true;
+        seasonEpoch++;
+        warriors.values().forEach(Warrior::resetStats);
+        groups.values().forEach(GroupData::resetStats);
+        warriorsLeaderboards.clear();
+        groupsLeaderboards.clear();
+        rankingCache.invalidate();
+        return archiveSeason().thenApplyAsync(Function.identity(), mainThread);
+    }
+
+    /**
+     * Archives the season, or finishes the archive that failed. The saves are blocked until it succeeds, and the
+     * changes made meanwhile are kept in memory and in the journal.
+     *
+     * @return the id of the archived season
+     */
+    private @NotNull CompletableFuture<Integer> archiveSeason() {
+        final SeasonArchiver archiver = new SeasonArchiver(getDialect());
+        final long start = System.currentTimeMillis();
+        return executor.write(connection -> {
+            // the failed saves hold changes of the last season
+            flushFailedWrites(connection);
+            final int unfinished = archiver.getUnfinished(connection);
+            if (unfinished > 0) {
+                archiver.archive(connection, unfinished);
+                return unfinished;
+            }
+            return archiver.archiveNext(connection);
+        }).whenComplete((season, ex) -> {
+            archivingSeason.set(false);
+            if (ex != null) {
+                // it is tried again on the next save, or resumed on the next start
+                plugin.debug("Error while archiving the season: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
+                return;
+            }
+            seasonIncomplete = false;
+            plugin.getLogger().info(String.format("Archived season %d in %d ms", season,
+                    System.currentTimeMillis() - start));
+            plugin.getRankingService().invalidateSeasons();
+            runSync(this::requestSave);
+        });
+    }
+
+    /**
+     * Finishes the archive of a season interrupted by a stop, before the journal is replayed and the data is loaded
+     *
+     * @return false if a season is still incomplete, the saves are then blocked until its archive is finished
+     */
+    private boolean resumeSeason() {
+        final SeasonArchiver archiver = new SeasonArchiver(getDialect());
+        try (final Connection connection = pool.getConnection(0)) {
+            final int season = archiver.getUnfinished(connection);
+            if (season > 0) {
+                final int rows = archiver.archive(connection, season);
+                plugin.getLogger().info(String.format("Resumed the archive of season %d, %d rows archived", season,
+                        rows));
             }
+            return true;
         } catch (final SQLException ex) {
-            plugin.debug("Error while saving a Warrior: " + ex.getMessage(), false);
+            plugin.debug("Error while resuming the archive of the season: " + ex.getMessage(), false);
+            seasonIncomplete = true;
+            return false;
         }
     }
 
-    @NotNull
-    public GroupData getGroupData(@NotNull final String id) {
-        return groups.computeIfAbsent(id, k -> new GroupData());
+    /**
+     * @return the ids of the archived seasons, from the oldest, completed on the main thread
+     */
+    public @NotNull CompletableFuture<List<Integer>> getSeasons() {
+        final SeasonArchiver archiver = new SeasonArchiver(getDialect());
+        return executor.read(archiver::getSeasons).exceptionally(ex -> {
+            plugin.debug("Error while querying the seasons: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
+            return Collections.emptyList();
+        }).thenApplyAsync(Function.identity(), mainThread);
     }
 
-    @NotNull
-    public Warrior getWarrior(@NotNull final OfflinePlayer player) {
-        return getWarrior(player.getUniqueId());
+    /**
+     * Gets a page of the ranking of an archived season. Groups that no longer exist are skipped.
+     *
+     * @param season the season
+     * @param groupRanking whether to get the groups ranking, instead of the players one
+     * @param game   the game
+     * @param order  the counter to sort by, ties are sorted by victories
+     * @param offset how many entries to skip
+     * @param limit  the maximum number of entries
+     * @return the entries, completed on the main thread, empty if the season does not exist or the query fails
+     */
+    public @NotNull CompletableFuture<List<RankingEntry>> getSeasonRanking(final int season, final boolean groupRanking,
+                                                                          @NotNull final String game,
+                                                                          @NotNull final Counter order,
+                                                                          final int offset, final int limit) {
+        final SeasonArchiver archiver = new SeasonArchiver(getDialect());
+        final SeasonArchiver.Kind kind = groupRanking ? SeasonArchiver.Kind.GROUP : SeasonArchiver.Kind.WARRIOR;
+        final Counter column = !groupRanking && order == Counter.DEFEATS ? Counter.VICTORIES : order;
+        final Set<String> groupIds = groupRanking ? getGroupIds() : null;
+        return executor.read(connection -> archiver.getRanking(connection, season, kind, game, column, offset, limit,
+                        groupIds != null ? groupIds::contains : null))
+                .exceptionally(ex -> {
+                    plugin.debug("Error while querying the season: " + DatabaseExecutor.unwrap(ex).getMessage(),
+                            false);
+                    return Collections.emptyMap();
+                }).thenApplyAsync(entries -> groupRanking ? withGroupNames(entries) : List.copyOf(entries.values()),
+                        mainThread);
     }
 
-    @NotNull
-    public Warrior getWarrior(@NotNull final UUID uuid) {
-        final OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(uuid);
-        final Warrior warrior = warriors.computeIfAbsent(uuid, (id) -> new Warrior(offlinePlayer, plugin::getGroupManager));
-        if (offlinePlayer instanceof final Player player) {
-            warrior.setOnlinePlayer(player);
+    /**
+     * @return the IDs of the groups that exist now
+     */
+    private @NotNull Set<String> getGroupIds() {
+        final GroupManager groupManager = plugin.getGroupManager();
+        if (groupManager == null) {
+            return Collections.emptySet();
         }
-        return warrior;
+        final Set<String> ids = new HashSet<>();
+        groupManager.getGroups().forEach(group -> ids.add(group.getId()));
+        return ids;
+    }
+
+    private @NotNull List<RankingEntry> withGroupNames(@NotNull final Map<String, RankingEntry> entries) {
+        final GroupManager groupManager = plugin.getGroupManager();
+        final List<RankingEntry> named = new ArrayList<>(entries.size());
+        if (groupManager == null) {
+            return named;
+        }
+        entries.forEach((id, e) -> {
+            final Group group = groupManager.getGroupById(id);
+            // it may have been disbanded while the query ran
+            if (group != null) {
+                named.add(new RankingEntry(group.getName(), e.victories(), e.kills(), e.deaths(), e.defeats()));
+            }
+        });
+        return named;
+    }
+
+    private void refreshStoredWarriors() {
+        executor.read(connection -> {
+            try (final Statement statement = connection.createStatement();
+                 final ResultSet rs = statement.executeQuery("SELECT COUNT(DISTINCT uuid) FROM tb_warriors;")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }).whenComplete((count, ex) -> {
+            if (ex != null) {
+                plugin.debug("Error while counting the players: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
+                return;
+            }
+            storedWarriors = count;
+        });
     }
 
     private void loopThroughGroups() {
         final String sql = "SELECT * FROM tb_groups;";
-        try (final PreparedStatement statement = getConnection().prepareStatement(sql)) {
+        try (final Connection connection = getConnection();
+             final PreparedStatement statement = connection.prepareStatement(sql)) {
             final ResultSet query = statement.executeQuery();
 
-            final Map<String, Map<CountType, Map<String, Integer>>> dataMap = new HashMap<>();
+            final Map<String, Map<Counter, Map<String, Integer>>> dataMap = new HashMap<>();
 
             while (query.next()) {
                 final String id = query.getString("identification");
                 final String game = String.valueOf(query.getString("game"));
-                dataMap.computeIfAbsent(id, k -> new EnumMap<>(CountType.class));
-                final Map<CountType, Map<String, Integer>> groupData = dataMap.get(id);
-                for (final CountType t : CountType.values()) {
+                dataMap.computeIfAbsent(id, k -> new EnumMap<>(Counter.class));
+                final Map<Counter, Map<String, Integer>> groupData = dataMap.get(id);
+                for (final Counter t : Counter.values()) {
                     groupData.computeIfAbsent(t, k -> new HashMap<>());
-                    groupData.get(t).put(game, query.getInt(t.name()));
+                    groupData.get(t).put(game, query.getInt(t.getColumn()));
                 }
             }
 
-            for (final Map.Entry<String, Map<CountType, Map<String, Integer>>> entry : dataMap.entrySet()) {
-                final Map<CountType, Map<String, Integer>> data = entry.getValue();
+            for (final Map.Entry<String, Map<Counter, Map<String, Integer>>> entry : dataMap.entrySet()) {
+                final Map<Counter, Map<String, Integer>> data = entry.getValue();
 
-                final GroupData groupData = new GroupData(data.get(CountType.VICTORIES), data.get(CountType.DEFEATS),
-                        data.get(CountType.KILLS), data.get(CountType.DEATHS));
-                groups.put(entry.getKey(), groupData);
+                final GroupData groupData = new GroupData(data.get(Counter.VICTORIES), data.get(Counter.DEFEATS),
+                        data.get(Counter.KILLS), data.get(Counter.DEATHS));
+                groups.put(entry.getKey(), track(entry.getKey(), groupData));
             }
         } catch (final SQLException ex) {
             plugin.debug("Error while getting a Group: " + ex.getMessage(), false);
         }
+        // the groups disbanded while the plugin was off are kept out of the rankings
+        final Set<String> groupIds = getGroupIds();
+        if (plugin.getGroupManager() != null) {
+            groups.keySet().stream().filter(id -> !groupIds.contains(id)).forEach(groupsLeaderboards::remove);
+        }
     }
 
     private void loopThroughWarriors() {
         final String sql = "SELECT * FROM tb_warriors;";
-        try (final Statement statement = getConnection().createStatement()) {
+        try (final Connection connection = getConnection(); final Statement statement = connection.createStatement()) {
             final ResultSet rs = statement.executeQuery(sql);
 
-            final Map<UUID, Map<CountType, Map<String, Integer>>> players = new HashMap<>();
-
-            while (rs.next()) {
-                final UUID uuid = UUID.fromString(rs.getString("uuid"));
-                final String game = String.valueOf(rs.getString("game"));
-                players.computeIfAbsent(uuid, k -> new EnumMap<>(CountType.class));
-                final Map<CountType, Map<String, Integer>> playerData = players.get(uuid);
-                for (final CountType t : CountType.values()) {
-                    if (t == CountType.DEFEATS) continue;
-                    playerData.computeIfAbsent(t, k -> new HashMap<>());
-                    playerData.get(t).put(game, rs.getInt(t.name()));
-                }
-            }
-
-            for (final Map.Entry<UUID, Map<CountType, Map<String, Integer>>> entry : players.entrySet()) {
+            for (final Map.Entry<UUID, Map<Counter, Map<String, Integer>>> entry : readWarriors(rs).entrySet()) {
                 final OfflinePlayer player = Bukkit.getOfflinePlayer(entry.getKey());
-                final Map<CountType, Map<String, Integer>> playerData = entry.getValue();
+                final Map<Counter, Map<String, Integer>> playerData = entry.getValue();
 
-                final Warrior warrior = new Warrior(player, plugin::getGroupManager, playerData.get(CountType.KILLS),
-                        playerData.get(CountType.DEATHS), playerData.get(CountType.VICTORIES));
-                warriors.put(warrior.getUniqueId(), warrior);
+                final Warrior warrior = new Warrior(player, plugin::getGroupManager, playerData.get(Counter.KILLS),
+                        playerData.get(Counter.DEATHS), playerData.get(Counter.VICTORIES));
+                if (warriors.putIfAbsent(warrior) == warrior) {
+                    track(warrior);
+                }
             }
 
         } catch (final SQLException ex) {
@@ -382,197 +829,507 @@ public class DatabaseManager {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void loopThroughWinners() {
-        final String sql = "SELECT * FROM tb_winners;";
-        try (final Statement statement = getConnection().createStatement()) {
-            final ResultSet rs = statement.executeQuery(sql);
+    private @NotNull Map<UUID, Map<Counter, Map<String, Integer>>> readWarriors(@NotNull final ResultSet rs)
+            throws SQLException {
+        final Map<UUID, Map<Counter, Map<String, Integer>>> players = new HashMap<>();
+
+        while (rs.next()) {
+            final UUID uuid = UUID.fromString(rs.getString("uuid"));
+            final String game = String.valueOf(rs.getString("game"));
+            players.computeIfAbsent(uuid, k -> new EnumMap<>(Counter.class));
+            final Map<Counter, Map<String, Integer>> playerData = players.get(uuid);
+            for (final Counter t : Counter.values()) {
+                if (t == Counter.DEFEATS) continue;
+                playerData.computeIfAbsent(t, k -> new HashMap<>());
+                playerData.get(t).put(game, rs.getInt(t.getColumn()));
+            }
+        }
+        return players;
+    }
 
-            final Map<Date, Map<WinnerType, Map<String, Object>>> winnersData = new HashMap<>();
-
-            while (rs.next()) {
-                final Date date = parseDate(rs.getString("date"));
-                if (date == null) continue;
-
-                final String game = String.valueOf(rs.getString("game"));
-
-                winnersData.computeIfAbsent(date, k -> new EnumMap<>(WinnerType.class));
-                final Map<WinnerType, Map<String, Object>> data = winnersData.get(date);
-                for (final WinnerType wt : WinnerType.values()) {
-                    data.computeIfAbsent(wt, k -> new HashMap<>());
-                    final Map<String, Object> innerData = data.get(wt);
-                    switch (wt) {
-                        case KILLER:
-                            UUID k = null;
-
-                            final String killer = rs.getString("killer");
-                            if (killer != null) {
-                                k = UUID.fromString(killer);
-                            }
-                            innerData.put(game, k);
-                            break;
-                        case WINNER_GROUP:
-                            final String wg = rs.getString("winner_group");
-                            innerData.put(game, wg);
-                            break;
-                        case PLAYER_WINNER:
-                            final List<UUID> pw = new ArrayList<>();
-                            final JsonArray ja = new Gson().fromJson(rs.getString("player_winners"), JsonArray.class);
-                            if (ja != null) {
-                                ja.forEach(uuid -> pw.add(UUID.fromString(uuid.getAsString())));
-                            }
-                            innerData.put(game, pw);
-                            break;
+    private void loopThroughWinners() {
+        final Map<LocalDate, Map<String, UUID>> killers = new HashMap<>();
+        final Map<LocalDate, Map<String, String>> winnerGroups = new HashMap<>();
+        final Map<LocalDate, Map<String, List<UUID>>> playerWinners = new HashMap<>();
+        try (final Connection connection = getConnection(); final Statement statement = connection.createStatement()) {
+            try (final ResultSet rs = statement.executeQuery("SELECT * FROM tb_game_winners;")) {
+                while (rs.next()) {
+                    final LocalDate date = LocalDate.parse(rs.getString("date"));
+                    final String game = rs.getString("game");
+                    final String killer = rs.getString("killer");
+                    if (killer != null) {
+                        killers.computeIfAbsent(date, k -> new HashMap<>()).put(game, UUID.fromString(killer));
+                    }
+                    final String winnerGroup = rs.getString("winner_group");
+                    if (winnerGroup != null) {
+                        winnerGroups.computeIfAbsent(date, k -> new HashMap<>()).put(game, winnerGroup);
                     }
                 }
             }
-
-            for (final Map.Entry<Date, Map<WinnerType, Map<String, Object>>> dateEntry : winnersData.entrySet()) {
-                final Map<WinnerType, Map<String, Object>> data = dateEntry.getValue();
-
-                final Map<String, UUID> killer = new HashMap<>();
-                final Map<String, List<UUID>> playerWinners = new HashMap<>();
-                final Map<String, String> winnerGroup = new HashMap<>();
-
-                for (final Map.Entry<WinnerType, Map<String, Object>> wtEntry : data.entrySet()) {
-                    for (final Map.Entry<String, Object> gameEntry : wtEntry.getValue().entrySet()) {
-                        final String game = gameEntry.getKey();
-                        final Object innerObject = gameEntry.getValue();
-                        switch (wtEntry.getKey()) {
-                            case KILLER:
-                                killer.put(game, (UUID) innerObject);
-                                break;
-                            case WINNER_GROUP:
-                                winnerGroup.put(game, (String) innerObject);
-                                break;
-                            case PLAYER_WINNER:
-                                playerWinners.put(game, (List<UUID>) innerObject);
-                                break;
-                        }
-                    }
+            try (final ResultSet rs = statement.executeQuery("SELECT * FROM tb_winner_players ORDER BY position;")) {
+                while (rs.next()) {
+                    final LocalDate date = LocalDate.parse(rs.getString("date"));
+                    playerWinners.computeIfAbsent(date, k -> new HashMap<>())
+                            .computeIfAbsent(rs.getString("game"), k -> new ArrayList<>())
+                            .add(UUID.fromString(rs.getString("uuid")));
                 }
-
-                final Winners winner = new Winners(dateEntry.getKey(), killer, playerWinners, winnerGroup);
-                winners.add(winner);
             }
-
-        } catch (final SQLException ex) {
+        } catch (final SQLException | DateTimeParseException ex) {
             plugin.debug("An error occurred while trying to load the winner data! " + ex.getMessage(), false);
+            return;
         }
 
-        winners.sort(Comparator.naturalOrder());
+        final Set<LocalDate> dates = new HashSet<>(killers.keySet());
+        dates.addAll(winnerGroups.keySet());
+        dates.addAll(playerWinners.keySet());
+        for (final LocalDate date : dates) {
+            winners.put(date, track(date, new Winners(toDate(date), killers.get(date), playerWinners.get(date),
+                    winnerGroups.get(date))));
+        }
     }
 
     public void loadDataToMemory() {
         loopThroughGroups();
-        loopThroughWarriors();
+        if (isLazyLoading()) {
+            refreshStoredWarriors();
+        } else {
+            loopThroughWarriors();
+        }
         loopThroughWinners();
     }
 
     public void saveAll() {
-        // Copying collections for async use, avoiding ConcurrentModificationException
-        final Map<String, GroupData> groupMap = new HashMap<>(getGroups());
-        final Set<Warrior> warriorsSet = new HashSet<>(getWarriors());
-        final List<Winners> winnersList = new ArrayList<>(getWinners());
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            for (final Map.Entry<String, GroupData> data : groupMap.entrySet()) {
-                if (data.getValue().isModified()) {
-                    update(data.getKey(), data.getValue());
-                    data.getValue().setModified(false);
-                }
-            }
+        save(Collections.emptyList());
+    }
 
-            for (final Warrior warrior : warriorsSet) {
-                if (warrior.isModified()) {
-                    update(warrior);
-                    warrior.setModified(false);
-                }
+    /**
+     * Saves the modified data soon, once for all the requests made meanwhile
+     */
+    public void requestSave() {
+        // while disabling, close() saves everything
+        if (plugin.isEnabled() && saveRequested.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                saveRequested.set(false);
+                saveAll();
+            }, SAVE_REQUEST_DELAY);
+        }
+    }
+
+    /**
+     * Saves the modified data, unless the last save is still running. In that case, the changes are left for the
+     * next cycle, so slow databases don't pile up saves.
+     */
+    public void autoSave() {
+        compactHistory();
+        if (runningSaves.get() > 0) {
+            skippedSaves.incrementAndGet();
+            plugin.getDebugLogger().debug(Category.PERSISTENCE,
+                    "Skipping the autosave, the last save is still running");
+            return;
+        }
+        saveAll();
+    }
+
+    private void reportUnsaved() {
+        final long unsavedWinners = winners.values().stream().filter(Winners::isModified).count();
+        final int running = runningSaves.get();
+        final int failed = failedWrites.size();
+        if (dirtyWarriors.isEmpty() && dirtyGroups.isEmpty() && unsavedWinners == 0 && running == 0 && failed == 0) {
+            plugin.getLogger().info("All the data was saved");
+            return;
+        }
+        plugin.getLogger().warning(String.format("Not saved: %d warriors, %d groups, %d winners, %d unfinished "
+                + "saves and %d failed saves", dirtyWarriors.size(), dirtyGroups.size(), unsavedWinners, running,
+                failed));
+        if (seasonIncomplete) {
+            plugin.getLogger().warning("The archive of the season was not finished, it is resumed on the next start");
+        }
+        if (journal != null) {
+            plugin.getLogger().warning("They will be recovered from the journal on the next start");
+        }
+    }
+
+    public @NotNull SaveStats getSaveStats() {
+        return new SaveStats(saves.get(), failedSaves.get(), skippedSaves.get(), runningSaves.get(), lastSave);
+    }
+
+    /**
+     * Saves the modified data
+     *
+     * @param evicted warriors that were removed from memory, but have changes to save
+     */
+    private void save(@NotNull final Collection<Warrior> evicted) {
+        evicted.forEach(w -> dirtyWarriors.put(w.getUniqueId(), w));
+        if (seasonIncomplete) {
+            // the changes belong to the new season, the rows still holding the last one's totals are archived first
+            if (archivingSeason.compareAndSet(false, true)) {
+                archiveSeason();
             }
+            return;
+        }
+        final long segment = rotateJournal();
+        // Taking a snapshot of the modified data on the calling thread, the async task only touches the rows
+        final BatchWriter writer = new BatchWriter(getDialect());
+        final List<Warrior> candidates = new ArrayList<>(dirtyWarriors.values());
+        dirtyWarriors.clear();
+        final boolean savedWarriors = collectWarriors(writer, candidates);
+        // the ones without a name yet
+        candidates.stream().filter(Warrior::isModified).forEach(w -> dirtyWarriors.put(w.getUniqueId(), w));
+        collectGroups(writer);
+        collectWinners(writer);
+        if (segment > 0) {
+            // in the same transaction, so the segment is never recovered after being saved
+            writer.add(Table.JOURNAL, JOURNAL_CHECKPOINT, segment);
+        }
+        write(writer, segment, savedWarriors);
+    }
+
+    /**
+     * @return the journal segment with the changes about to be saved, or 0 if there is none
+     */
+    private long rotateJournal() {
+        if (journal == null) {
+            return 0;
+        }
+        try {
+            return journal.rotate();
+        } catch (final IOException ex) {
+            plugin.debug("Error while writing the journal, it is disabled: " + ex.getMessage(), false);
+            // the changes are still in memory and are saved now, recovering them later would count them twice
+            journal.close();
+            journal.delete(Long.MAX_VALUE);
+            journal = null;
+            return 0;
+        }
+    }
+
+    private void write(@NotNull final BatchWriter writer, final long segment,
+                       final boolean savedWarriors) {
+        if (writer.isEmpty() && failedWrites.isEmpty()) {
+            return;
+        }
 
-            for (final Winners winner : winnersList) {
-                if (winner.isModified()) {
-                    update(winner);
-                    winner.setModified(false);
+        final StatJournal journal = this.journal;
+        runningSaves.incrementAndGet();
+        executor.write(connection -> {
+            try {
+                final BatchWriter.FlushResult retried = flushFailedWrites(connection);
+                final BatchWriter.FlushResult result = writer.flush(connection);
+                return new BatchWriter.FlushResult(retried.rows() + result.rows(),
+                        retried.elapsedMillis() + result.elapsedMillis());
+            } catch (final SQLException | RuntimeException ex) {
+                // kept in order, so a later save can't store a checkpoint past its segment
+                failedWrites.addLast(writer);
+                throw ex;
+            }
+        }).whenComplete((result, ex) -> {
+            runningSaves.decrementAndGet();
+            if (ex == null) {
+                saves.incrementAndGet();
+                lastSave = result;
+                plugin.getDebugLogger().debug(Category.PERSISTENCE, "Saved {} rows in {} ms", result.rows(),
+                        result.elapsedMillis());
+                if (segment > 0 && journal != null) {
+                    journal.delete(segment);
                 }
+                if (isLazyLoading() && savedWarriors) {
+                    rankingCache.invalidate();
+                    refreshStoredWarriors();
+                }
+                return;
             }
+            failedSaves.incrementAndGet();
+            plugin.debug("Error while saving the data: " + DatabaseExecutor.unwrap(ex).getMessage(), false);
         });
     }
 
-    public Winners getLatestWinners() {
-        if (winners.isEmpty()) {
-            return getEmptyWinners(null);
+    /**
+     * Writes the saves that failed, from the oldest. Runs on the writer thread, before any other write.
+     *
+     * @param connection the connection
+     * @return how many rows were written
+     * @throws SQLException if one of them fails again, it is then kept with the ones after it
+     */
+    private @NotNull BatchWriter.FlushResult flushFailedWrites(@NotNull final Connection connection)
+            throws SQLException {
+        int rows = 0;
+        long elapsed = 0;
+        for (BatchWriter failed = failedWrites.peekFirst(); failed != null; failed = failedWrites.peekFirst()) {
+            final BatchWriter.FlushResult result = failed.flush(connection);
+            failedWrites.removeFirst();
+            rows += result.rows();
+            elapsed += result.elapsedMillis();
         }
-        return winners.get(winners.size() - 1);
+        return new BatchWriter.FlushResult(rows, elapsed);
     }
 
-    public Winners getTodaysWinners() {
-        if (!winners.isEmpty()) {
-            final Date today = Calendar.getInstance().getTime();
-            final Date latest = getLatestWinners().getDate();
-            if (latest != null && Helper.equalDates(today, latest)) {
-                return getLatestWinners();
+    private void runSync(@NotNull final Runnable runnable) {
+        if (Bukkit.isPrimaryThread() || !plugin.isEnabled()) {
+            runnable.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, runnable);
+        }
+    }
+
+    /**
+     * @return true if any warrior was collected
+     */
+    private boolean collectWarriors(@NotNull final BatchWriter writer, @NotNull final Collection<Warrior> candidates) {
+        boolean collected = false;
+        for (final Warrior warrior : candidates) {
+            if (!warrior.isModified()) {
+                continue;
+            }
+            final String uuid = warrior.getUniqueId().toString();
+            final String name = warrior.toPlayer().getName();
+            if (name == null) {
+                plugin.getDebugLogger().debug(Category.PERSISTENCE, "Name not found for {}", uuid);
+                continue;
+            }
+            addWarriorRows(writer, uuid, name, warrior.drainChanges());
+            collected = true;
+        }
+        return collected;
+    }
+
+    private void collectGroups(@NotNull final BatchWriter writer) {
+        for (final String id : dirtyGroups) {
+            final GroupData data = groups.get(id);
+            if (data == null || !data.isModified()) {
+                continue;
+            }
+            addGroupRows(writer, id, data.drainChanges());
+        }
+        dirtyGroups.clear();
+    }
+
+    private void addWarriorRows(@NotNull final BatchWriter writer, @NotNull final String uuid,
+                                @NotNull final String name,
+                                @NotNull final Map<String, Map<Counter, Integer>> changes) {
+        final String today = LocalDate.now().toString();
+        changes.forEach((game, counters) -> {
+            final Set<String> columns = getColumns(counters);
+            final int kills = counters.getOrDefault(Counter.KILLS, 0);
+            final int deaths = counters.getOrDefault(Counter.DEATHS, 0);
+            final int victories = counters.getOrDefault(Counter.VICTORIES, 0);
+            writer.addIncrement(Table.WARRIORS, columns, uuid, game, name, kills, deaths, victories);
+            if (historyEnabled) {
+                writer.addIncrement(Table.WARRIOR_HISTORY, columns, uuid, game, StatHistory.Bucket.DAY.getName(),
+                        today, kills, deaths, victories);
+            }
+        });
+    }
+
+    private void addGroupRows(@NotNull final BatchWriter writer, @NotNull final String id,
+                              @NotNull final Map<String, Map<Counter, Integer>> changes) {
+        final String today = LocalDate.now().toString();
+        changes.forEach((game, counters) -> {
+            final Set<String> columns = getColumns(counters);
+            final int kills = counters.getOrDefault(Counter.KILLS, 0);
+            final int deaths = counters.getOrDefault(Counter.DEATHS, 0);
+            final int victories = counters.getOrDefault(Counter.VICTORIES, 0);
+            final int defeats = counters.getOrDefault(Counter.DEFEATS, 0);
+            writer.addIncrement(Table.GROUPS, columns, id, game, kills, deaths, victories, defeats);
+            if (historyEnabled) {
+                writer.addIncrement(Table.GROUP_HISTORY, columns, id, game, StatHistory.Bucket.DAY.getName(), today,
+                        kills, deaths, victories, defeats);
+            }
+        });
+    }
+
+    /**
+     * Merges the old buckets of the statistics history, once a day
+     */
+    private void compactHistory() {
+        final LocalDate today = LocalDate.now();
+        if (!historyEnabled || today.equals(lastCompaction)) {
+            return;
+        }
+        lastCompaction = today;
+        final ConfigManager cm = plugin.getConfigManager();
+        final int dailyDays = cm.getSqlHistoryDailyDays();
+        final int weeklyDays = cm.getSqlHistoryWeeklyDays();
+        final StatHistory history = new StatHistory(getDialect());
+        executor.write(connection -> history.compact(connection, Table.WARRIOR_HISTORY, today, dailyDays, weeklyDays)
+                + history.compact(connection, Table.GROUP_HISTORY, today, dailyDays, weeklyDays)
+        ).whenComplete((merged, ex) -> {
+            if (ex != null) {
+                plugin.debug("Error while compacting the history: " + DatabaseExecutor.unwrap(ex).getMessage(),
+                        false);
+                return;
             }
+            plugin.getDebugLogger().debug(Category.PERSISTENCE, "Merged {} history buckets", merged);
+        });
+    }
+
+    private @NotNull Set<String> getColumns(@NotNull final Map<Counter, Integer> counters) {
+        final Set<String> columns = new HashSet<>();
+        counters.keySet().forEach(c -> columns.add(c.getColumn()));
+        return columns;
+    }
 
-            for (final Winners w : winners) {
-                if (Helper.equalDates(w.getDate(), today)) {
-                    return w;
+    private void collectWinners(@NotNull final BatchWriter writer) {
+        final Set<GameConfiguration> games = getGames();
+        for (final Winners w : winners.values()) {
+            if (!w.isModified()) {
+                continue;
+            }
+            w.setModified(false);
+            final String date = toLocalDate(w.getDate()).toString();
+            for (final GameConfiguration game : games) {
+                final String name = game.getName();
+                if (w.isEmpty(name)) {
+                    continue;
                 }
+                addWinnersRows(writer, date, name, w.getKiller(name), w.getWinnerGroup(name),
+                        w.getPlayerWinners(name));
             }
         }
-        return getEmptyWinners(null);
     }
 
-    private @NotNull Winners getEmptyWinners(@Nullable Date date) {
-        if (date == null) {
-            date = Calendar.getInstance().getTime();
+    private void addWinnersRows(@NotNull final BatchWriter writer, @NotNull final String date,
+                                @NotNull final String game, @Nullable final UUID killer,
+                                @Nullable final String winnerGroup, @Nullable final List<UUID> playerWinners) {
+        writer.add(Table.WINNERS, date, game, killer != null ? killer.toString() : null, winnerGroup);
+        writer.delete(Table.WINNER_PLAYERS, List.of("date", "game"), date, game);
+        if (playerWinners != null) {
+            for (int i = 0; i < playerWinners.size(); i++) {
+                writer.add(Table.WINNER_PLAYERS, date, game, playerWinners.get(i).toString(), i);
+            }
         }
+    }
 
-        final Winners w = new Winners(date);
-        winners.add(w);
-        winners.sort(Comparator.naturalOrder());
-        return w;
+    private @NotNull SqlDialect getDialect() {
+        return plugin.getConfigManager().isSqlUseMysql() ? SqlDialect.MYSQL : SqlDialect.SQLITE;
     }
 
-    public Winners getWinners(final Date date) {
-        for (final Winners w : winners) {
-            if (Helper.equalDates(date, w.getDate())) {
-                return w;
+    public Winners getLatestWinners() {
+        final Map.Entry<LocalDate, Winners> latest = winners.lastEntry();
+        return latest != null ? latest.getValue() : getTodaysWinners();
+    }
+
+    /**
+     * @param filter the filter
+     * @return the most recent winners accepted by the filter
+     */
+    public @NotNull Optional<Winners> getLatestWinners(@NotNull final Predicate<Winners> filter) {
+        for (final Winners w : winners.descendingMap().values()) {
+            if (filter.test(w)) {
+                return Optional.of(w);
             }
         }
-        return getEmptyWinners(date);
+        return Optional.empty();
+    }
+
+    public Winners getTodaysWinners() {
+        return getWinners(LocalDate.now());
+    }
+
+    public Winners getWinners(final Date date) {
+        return getWinners(toLocalDate(date));
+    }
+
+    private @NotNull Winners getWinners(@NotNull final LocalDate date) {
+        return winners.computeIfAbsent(date, d -> track(d, new Winners(toDate(d))));
     }
 
+    /**
+     * @return the warriors in memory, which are all of them unless lazy loading is enabled
+     */
     public Set<Warrior> getWarriors() {
         return new HashSet<>(warriors.values());
     }
 
+    /**
+     * @return how many players have statistics saved or in memory
+     */
+    public int getWarriorsCount() {
+        return isLazyLoading() ? Math.max(storedWarriors, warriors.size()) : warriors.size();
+    }
+
     public Map<String, GroupData> getGroups() {
         return Collections.unmodifiableMap(groups);
     }
 
-    public List<Winners> getWinners() {
-        return winners;
+    /**
+     * @return the winners of every date, from the oldest
+     */
+    public Collection<Winners> getWinners() {
+        return Collections.unmodifiableCollection(winners.values());
     }
 
     private @NotNull Set<GameConfiguration> getGames() {
         return plugin.getConfigurationDao().getConfigurations(GameConfiguration.class);
     }
 
-    private @Nullable Date parseDate(final String dateString) {
-        try {
-            return new SimpleDateFormat("dd/MM/yyyy").parse(dateString);
-        } catch (final ParseException ex) {
-            plugin.debug("Invalid date! " + ex.getMessage(), false);
-            return null;
+    private static @NotNull LocalDate toLocalDate(@NotNull final Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static @NotNull Date toDate(@NotNull final LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Adds up the records of the journal, so each warrior and group is saved with a single row per game
+     */
+    private class JournalReplay implements StatJournal.Handler {
+
+        private final Map<UUID, String> names = new HashMap<>();
+        private final Map<UUID, StatChanges> warriorChanges = new HashMap<>();
+        private final Map<String, StatChanges> groupChanges = new HashMap<>();
+        // the latest winners of each date and game
+        private final Map<String, JournaledWinners> latestWinners = new LinkedHashMap<>();
+        private int records;
+
+        @Override
+        public void warrior(@NotNull final UUID uuid, @NotNull final String name, @NotNull final String game,
+                            @NotNull final Counter counter, final int delta) {
+            names.put(uuid, name);
+            warriorChanges.computeIfAbsent(uuid, k -> new StatChanges()).add(game, counter, delta);
+            records++;
+        }
+
+        @Override
+        public void group(@NotNull final String id, @NotNull final String game, @NotNull final Counter counter,
+                          final int delta) {
+            groupChanges.computeIfAbsent(id, k -> new StatChanges()).add(game, counter, delta);
+            records++;
+        }
+
+        @Override
+        public void winners(@NotNull final LocalDate date, @NotNull final String game, @Nullable final UUID killer,
+                            @Nullable final String group, @NotNull final List<UUID> players) {
+            latestWinners.put(date + " " + game.toLowerCase(Locale.ROOT),
+                    new JournaledWinners(date, game, killer, group, players.isEmpty() ? null : players));
+            records++;
+        }
+
+        void addTo(@NotNull final BatchWriter writer) {
+            warriorChanges.forEach((uuid, changes) -> addWarriorRows(writer, uuid.toString(), names.get(uuid),
+                    changes.drain()));
+            groupChanges.forEach((id, changes) -> addGroupRows(writer, id, changes.drain()));
+            latestWinners.values().forEach(w -> addWinnersRows(writer, w.date().toString(), w.game(), w.killer(),
+                    w.group(), w.players()));
+        }
+
+        int getRecords() {
+            return records;
         }
     }
 
-    private enum CountType {
-        KILLS, DEATHS, VICTORIES, DEFEATS
+    /**
+     * @param saves      how many saves succeeded
+     * @param failures   how many saves failed
+     * @param skipped    how many autosaves were skipped because the last save was still running
+     * @param running    how many saves are running or waiting for the database
+     * @param lastSave   the outcome of the last successful save, or null if there was none
+     */
+    public record SaveStats(long saves, long failures, long skipped, int running,
+                            @Nullable BatchWriter.FlushResult lastSave) {
     }
 
-    private enum WinnerType {
-        KILLER, WINNER_GROUP, PLAYER_WINNER
+    private record JournaledWinners(@NotNull LocalDate date, @NotNull String game, @Nullable UUID killer,
+                                    @Nullable String group, @Nullable List<UUID> players) {
     }
 }
@@ -7,13 +7,11 @@ import me.roinujnosde.titansbattle.exceptions.InvalidGameException;
 import me.roinujnosde.titansbattle.games.Game;
 import me.roinujnosde.titansbattle.types.GameConfiguration;
 import me.roinujnosde.titansbattle.types.Warrior;
-import me.roinujnosde.titansbattle.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.text.MessageFormat;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -51,8 +49,9 @@ public class GameManager {
             return;
         }
         Bukkit.getPluginManager().callEvent(new NewKillerEvent(killer, victim));
-        Bukkit.getServer().getOnlinePlayers().forEach(p -> MessageUtils.sendActionBar(p,
-                MessageFormat.format(plugin.getLang("new_killer", gameConfig.getFileConfiguration()), killer.getName())));
+        final BroadcastManager broadcastManager = plugin.getBroadcastManager();
+        broadcastManager.sendActionBar(broadcastManager.getServer(),
+                plugin.getLang("new_killer", gameConfig.getFileConfiguration(), killer.getName()));
         plugin.getDatabaseManager().getTodaysWinners().setKiller(gameConfig.getName(), killer.getUniqueId());
     }
 
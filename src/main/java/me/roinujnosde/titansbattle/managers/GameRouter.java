@@ -0,0 +1,96 @@
+package me.roinujnosde.titansbattle.managers;
+
+import me.roinujnosde.titansbattle.BaseGame;
+import me.roinujnosde.titansbattle.types.Warrior;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Knows which game each player is participating in, so the battle listeners find it with a single lookup
+ * <p>
+ * The games update their routes whenever a warrior joins or leaves them, and remove them all when they finish.
+ */
+public class GameRouter {
+
+    private final Map<UUID, BaseGame> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param uuid the player's UUID
+     * @return the game the player is routed to, or null if there is none
+     */
+    public @Nullable BaseGame get(@NotNull UUID uuid) {
+        return routes.get(uuid);
+    }
+
+    /**
+     * Routes the warrior to the game if they are participating in it, or removes the route otherwise
+     *
+     * @param warrior the warrior
+     * @param game    the game that changed
+     */
+    public void update(@NotNull Warrior warrior, @NotNull BaseGame game) {
+        final UUID uuid = warrior.getUniqueId();
+        if (game.isParticipant(warrior)) {
+            routes.put(uuid, game);
+        } else {
+            routes.remove(uuid, game);
+        }
+    }
+
+    /**
+     * Removes every route to the game
+     *
+     * @param game the game
+     */
+    public void removeAll(@NotNull BaseGame game) {
+        routes.values().removeIf(g -> g == game);
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    /**
+     * Compares the routes with the participants of the games
+     *
+     * @param games    the games running
+     * @param warriors gets the warrior of a routed UUID
+     * @return the players whose route is missing or wrong
+     */
+    public @NotNull List<Mismatch> validate(@NotNull Collection<? extends BaseGame> games,
+                                            @NotNull Function<UUID, Warrior> warriors) {
+        final List<Mismatch> mismatches = new ArrayList<>();
+        for (final BaseGame game : games) {
+            for (final Warrior warrior : game.getParticipants()) {
+                final BaseGame routed = routes.get(warrior.getUniqueId());
+                if (routed != game) {
+                    mismatches.add(new Mismatch(warrior.getUniqueId(), game, routed));
+                }
+            }
+        }
+        routes.forEach((uuid, game) -> {
+            if (!games.contains(game) || !game.isParticipant(warriors.apply(uuid))) {
+                mismatches.add(new Mismatch(uuid, null, game));
+            }
+        });
+        return mismatches;
+    }
+
+    /**
+     * A player that is not routed to the game they are participating in
+     *
+     * @param uuid     the player's UUID
+     * @param expected the game they are participating in, or null if there is none
+     * @param routed   the game they are routed to, or null if there is none
+     */
+    public record Mismatch(@NotNull UUID uuid, @Nullable BaseGame expected, @Nullable BaseGame routed) {
+    }
+}
@@ -50,6 +50,21 @@ public abstract class GroupManager {
      */
     public abstract @Nullable Group getGroup(@NotNull UUID uuid);
 
+    /**
+     * Gets a {@link Group} by its ID
+     *
+     * @param id the ID
+     * @return the Group or null if it does not exist
+     */
+    public @Nullable Group getGroupById(@NotNull String id) {
+        for (Group group : getGroups()) {
+            if (group.getId().equals(id)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
     /**
      * Checks whether two {@link Player}s are in the same {@link Group}
      *
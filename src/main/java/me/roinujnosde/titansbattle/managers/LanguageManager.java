@@ -1,14 +1,21 @@
 package me.roinujnosde.titansbattle.managers;
 
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.utils.MessageTemplate;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class LanguageManager {
@@ -17,6 +24,9 @@ public class LanguageManager {
     private File file;
     private String fileName;
     private YamlConfiguration englishLanguageFile;
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<FileConfiguration, Map<String, MessageTemplate>> gameTemplates =
+            Collections.synchronizedMap(new WeakHashMap<>());
 
     public void setup() {
         TitansBattle plugin = TitansBattle.getInstance();
@@ -28,6 +38,7 @@ public class LanguageManager {
             plugin.saveResource(fileName, false);
         }
         configFile = YamlConfiguration.loadConfiguration(file);
+        invalidateTemplates();
     }
 
     public FileConfiguration getConfig() {
@@ -53,5 +64,38 @@ public class LanguageManager {
 
     public void reload() {
         configFile = YamlConfiguration.loadConfiguration(file);
+        invalidateTemplates();
+    }
+
+    /**
+     * Gets the template of a message, compiling it on the first use
+     *
+     * @param path   the message's path
+     * @param config a game config that may override the message
+     * @return the template from the game config, the language file or the English one, in this order
+     */
+    public @NotNull MessageTemplate getTemplate(@NotNull String path, @Nullable FileConfiguration config) {
+        if (config == null) {
+            return templates.computeIfAbsent(path, this::compile);
+        }
+        final Map<String, MessageTemplate> overrides = gameTemplates.computeIfAbsent(config,
+                c -> new ConcurrentHashMap<>());
+        return overrides.computeIfAbsent(path, p -> {
+            final String language = config.getString("language." + p);
+            return language != null ? MessageTemplate.compile(language) : templates.computeIfAbsent(p, this::compile);
+        });
+    }
+
+    /**
+     * Discards the compiled templates, so the next messages are compiled from the current files
+     */
+    public void invalidateTemplates() {
+        templates.clear();
+        gameTemplates.clear();
+    }
+
+    private @NotNull MessageTemplate compile(@NotNull String path) {
+        return MessageTemplate.compile(configFile.getString(path,
+                getEnglishLanguageFile().getString(path, "<MISSING KEY: " + path + ">")));
     }
 }
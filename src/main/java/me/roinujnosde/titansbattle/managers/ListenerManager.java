@@ -36,6 +36,10 @@ public class ListenerManager {
         registerListener(new PlayerJoinListener(plugin), true);
         registerListener(new ItemsProtectionListener(plugin), true);
         registerListener(new PlayerSpawnLocationListener(plugin), true);
+        if (Bukkit.getPluginManager().isPluginEnabled("SimpleClans")) {
+            // also keeps the groups cache up to date
+            registerListener(new SimpleClansListener(plugin), true);
+        }
     }
 
     public void registerBattleListeners() {
@@ -48,9 +52,6 @@ public class ListenerManager {
         registerListener(new JoinGameListener(plugin));
         registerListener(new PlayerMoveListener(plugin));
         registerListener(new ProjectileLaunchListener(plugin));
-        if (Bukkit.getPluginManager().isPluginEnabled("SimpleClans")) {
-            registerListener(new SimpleClansListener(plugin));
-        }
         plugin.getLogger().info("Registering battle listeners...");
     }
 
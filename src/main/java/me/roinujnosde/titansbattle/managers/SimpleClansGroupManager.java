@@ -1,6 +1,7 @@
 package me.roinujnosde.titansbattle.managers;
 
 import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.listeners.SimpleClansListener;
 import me.roinujnosde.titansbattle.types.Group;
 import me.roinujnosde.titansbattle.types.SimpleClansGroup;
 import me.roinujnosde.titansbattle.utils.Helper;
@@ -9,15 +10,26 @@ import net.sacredlabyrinth.phaed.simpleclans.SimpleClans;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * The groups are cached by clan tag, and the group of each player by UUID. {@link SimpleClansListener} invalidates
+ * them when a clan is created, disbanded or renamed and when a player joins or leaves a clan.
+ */
 public class SimpleClansGroupManager extends GroupManager {
 
     private final SimpleClans simpleClans;
+    private final Map<String, SimpleClansGroup> groups = new ConcurrentHashMap<>();
+    private final Map<UUID, Optional<SimpleClansGroup>> players = new ConcurrentHashMap<>();
+    private volatile @Nullable Set<Group> allGroups;
 
     public SimpleClansGroupManager(@NotNull TitansBattle plugin) {
         super(plugin);
@@ -25,20 +37,62 @@ public class SimpleClansGroupManager extends GroupManager {
     }
 
     @Override
-    public @NotNull Set<Group> getGroups() {
-        return simpleClans.getClanManager().getClans().stream()
-                .map(clan -> new SimpleClansGroup(clan, idToData.apply(clan.getTag()))).collect(Collectors.toSet());
+    public @Unmodifiable @NotNull Set<Group> getGroups() {
+        Set<Group> all = allGroups;
+        if (all == null) {
+            all = simpleClans.getClanManager().getClans().stream().map(this::getGroup)
+                    .collect(Collectors.toUnmodifiableSet());
+            allGroups = all;
+        }
+        return all;
     }
 
     @Override
     public @Nullable Group getGroup(@NotNull UUID uuid) {
-        Clan clan = simpleClans.getClanManager().getClanByPlayerUniqueId(uuid);
+        return players.computeIfAbsent(uuid, k -> {
+            Clan clan = simpleClans.getClanManager().getClanByPlayerUniqueId(k);
+            return clan != null ? Optional.of(getGroup(clan)) : Optional.empty();
+        }).orElse(null);
+    }
+
+    @Override
+    public @Nullable Group getGroupById(@NotNull String id) {
+        SimpleClansGroup group = groups.get(id);
+        if (group != null) {
+            return group;
+        }
+        Clan clan = simpleClans.getClanManager().getClan(id);
         if (clan != null) {
-            return new SimpleClansGroup(clan, idToData.apply(clan.getTag()));
+            return getGroup(clan);
         }
         return null;
     }
 
+    private @NotNull SimpleClansGroup getGroup(@NotNull Clan clan) {
+        return groups.computeIfAbsent(clan.getTag(), tag -> new SimpleClansGroup(clan, idToData.apply(tag)));
+    }
+
+    /**
+     * Forgets the group of the player, to be called when they join or leave a clan
+     *
+     * @param uuid the player's UUID
+     */
+    public void invalidatePlayer(@NotNull UUID uuid) {
+        players.remove(uuid);
+    }
+
+    /**
+     * Forgets the clan and the group of its members, to be called when it is created, disbanded or renamed
+     *
+     * @param clan the clan
+     */
+    public void invalidateClan(@NotNull Clan clan) {
+        allGroups = null;
+        groups.values().removeIf(group -> group.getClan() == clan);
+        players.values().removeIf(group -> group.isPresent() && group.get().getClan() == clan);
+        clan.getMembers().forEach(cp -> players.remove(cp.getUniqueId()));
+    }
+
     @Override
     public boolean sameGroup(@NotNull UUID player1, @NotNull UUID player2) {
         Clan clan1 = simpleClans.getClanManager().getClanByPlayerUniqueId(player1);
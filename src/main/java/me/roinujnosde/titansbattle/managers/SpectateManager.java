@@ -5,6 +5,7 @@ import me.roinujnosde.titansbattle.BaseGameConfiguration;
 import me.roinujnosde.titansbattle.TitansBattle;
 import me.roinujnosde.titansbattle.challenges.ArenaConfiguration;
 import me.roinujnosde.titansbattle.games.Game;
+import me.roinujnosde.titansbattle.logging.DebugLogger.Category;
 import me.roinujnosde.titansbattle.types.Kit;
 import me.roinujnosde.titansbattle.utils.SoundUtils;
 import org.bukkit.Bukkit;
@@ -49,7 +50,8 @@ public class SpectateManager {
         if (!player.teleport(config.getWatchroom())) {
             player.removePotionEffect(PotionEffectType.INVISIBILITY);
             player.sendMessage(plugin.getLang("teleport-failed"));
-            plugin.debug(String.format("Failed to teleport player %s to watchroom location.", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "Failed to teleport player {} to watchroom location.",
+                    player.getName());
             return;
         }
 
@@ -64,26 +66,30 @@ public class SpectateManager {
         player.setFallDistance(0f);
         player.setAllowFlight(true);
         player.sendMessage(plugin.getLang("spectator-enter"));
-        plugin.debug(String.format("Player %s has entered spectator mode and was teleported to the watchroom.", player.getName()));
+        plugin.getDebugLogger().debug(Category.GAME,
+                "Player {} has entered spectator mode and was teleported to the watchroom.", player.getName());
     }
 
     public void removeSpectator(final Player player) {
         if (player == null) {
-            plugin.debug("Player is null, cannot remove spectator.");
+            plugin.getDebugLogger().debug(Category.GAME, "Player is null, cannot remove spectator.");
             return;
         }
         if (!isSpectating(player)) {
             player.sendMessage(plugin.getLang("not-spectating"));
-            plugin.debug(String.format("Player %s is not a spectator, cannot remove.", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "Player {} is not a spectator, cannot remove.",
+                    player.getName());
             return;
         }
         final boolean removed = spectators.remove(player.getUniqueId());
         if (!removed) {
-            plugin.debug(String.format("Player %s was not removed from spectators list.", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME, "Player {} was not removed from spectators list.",
+                    player.getName());
             return;
         }
         if (!player.teleport(configManager.getGeneralExit(), PlayerTeleportEvent.TeleportCause.PLUGIN)) {
-            plugin.debug(String.format("Failed to teleport player %s to exit location after spectating.", player.getName()));
+            plugin.getDebugLogger().debug(Category.GAME,
+                    "Failed to teleport player {} to exit location after spectating.", player.getName());
             player.sendMessage(plugin.getLang("teleport-failed"));
             spectators.add(player.getUniqueId());
         }
@@ -97,7 +103,8 @@ public class SpectateManager {
         player.setAllowFlight(false);
         player.removePotionEffect(PotionEffectType.INVISIBILITY);
         player.sendMessage(plugin.getLang("spectator-exit"));
-        plugin.debug(String.format("Player %s has exited spectator mode and was teleported to the exit location.", player.getName()));
+        plugin.getDebugLogger().debug(Category.GAME,
+                "Player {} has exited spectator mode and was teleported to the exit location.", player.getName());
     }
 
     public void removeAllSpectators() {
@@ -35,7 +35,6 @@ import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -50,6 +49,9 @@ public class TaskManager {
 
     private final TitansBattle plugin = TitansBattle.getInstance();
     BukkitTask giveItemsTask;
+    private BukkitTask evictionTask;
+    private BukkitTask autoSaveTask;
+    private BukkitTask actionBarTask;
     private Timer schedulerTimer;
 
     public void setupScheduler() {
@@ -76,6 +78,42 @@ public class TaskManager {
         }
     }
 
+    public void startEvictionTask() {
+        if (evictionTask != null) {
+            evictionTask.cancel();
+        }
+        final long interval = 60 * 20;
+        evictionTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> plugin.getDatabaseManager().evictWarriors(),
+                interval, interval);
+    }
+
+    public void startAutoSaveTask() {
+        if (autoSaveTask != null) {
+            autoSaveTask.cancel();
+            autoSaveTask = null;
+        }
+        final long interval = plugin.getConfigManager().getSqlAutoSaveInterval() * 20L;
+        if (interval <= 0) {
+            return;
+        }
+        autoSaveTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> plugin.getDatabaseManager().autoSave(),
+                interval, interval);
+    }
+
+    public void startActionBarTask() {
+        if (actionBarTask != null) {
+            actionBarTask.cancel();
+            actionBarTask = null;
+        }
+        final long interval = plugin.getConfigManager().getActionBarInterval();
+        if (interval <= 0) {
+            plugin.getBroadcastManager().flushActionBars();
+            return;
+        }
+        actionBarTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> plugin.getBroadcastManager().flushActionBars(),
+                interval, interval);
+    }
+
     public void startGiveItemsTask(long interval) {
         interval = interval * 20;
         if (giveItemsTask != null) {
@@ -119,8 +157,7 @@ public class TaskManager {
                         iterator.remove();
                     } else {
                         entry.setValue(remainingItems);
-                        player.sendMessage(MessageFormat.format(plugin.getLang("items_to_receive"),
-                                remainingItems.size()));
+                        player.sendMessage(plugin.getLang("items_to_receive", remainingItems.size()));
                     }
                 }
             } else {
@@ -0,0 +1,245 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps ids sorted by a score, from the highest to the lowest
+ * <p>
+ * Ties are broken by a second score, also from the highest, and then by the id. It is backed by a treap whose nodes
+ * know the size of their subtree, so updates, rank lookups and getting a page are all O(log n), plus the page size.
+ *
+ * @param <K> the type of the ids
+ */
+public class Leaderboard<K extends Comparable<K>> {
+
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private @Nullable Node<K> root;
+
+    /**
+     * Inserts the id, or moves it to its new position
+     *
+     * @param id         the id
+     * @param score      the score
+     * @param tieBreaker the score used when the main ones are equal
+     */
+    public synchronized void update(@NotNull K id, int score, int tieBreaker) {
+        final Node<K> current = nodes.get(id);
+        if (current != null) {
+            if (current.score == score && current.tieBreaker == tieBreaker) {
+                return;
+            }
+            root = delete(root, current);
+        }
+        final Node<K> node = new Node<>(id, score, tieBreaker);
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    public synchronized void remove(@NotNull K id) {
+        final Node<K> node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @param id the id
+     * @return the 1-based position of the id, or 0 if it is not in the leaderboard
+     */
+    public synchronized int getRank(@NotNull K id) {
+        final Node<K> target = nodes.get(id);
+        if (target == null) {
+            return 0;
+        }
+        int rank = 1;
+        Node<K> node = root;
+        while (node != null) {
+            final int cmp = compare(target, node);
+            if (cmp == 0) {
+                return rank + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param id the id
+     * @return the score of the id, or 0 if it is not in the leaderboard
+     */
+    public synchronized int getScore(@NotNull K id) {
+        final Node<K> node = nodes.get(id);
+        return node != null ? node.score : 0;
+    }
+
+    /**
+     * @param position the 1-based position
+     * @return the id in the position, or null if there is none
+     */
+    public synchronized @Nullable K get(int position) {
+        final Node<K> node = nodeAt(position - 1);
+        return node != null ? node.id : null;
+    }
+
+    /**
+     * Gets the ids in a range of positions
+     *
+     * @param offset how many ids to skip from the top
+     * @param limit  the maximum number of ids
+     * @return the ids, from the highest score
+     */
+    public synchronized @NotNull List<K> getRange(int offset, int limit) {
+        final List<K> ids = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+        if (offset < 0 || limit <= 0) {
+            return ids;
+        }
+        collect(root, offset, offset + limit, 0, ids);
+        return ids;
+    }
+
+    private void collect(@Nullable Node<K> node, int from, int to, int base, @NotNull List<K> ids) {
+        if (node == null || base >= to || base + node.size <= from) {
+            return;
+        }
+        collect(node.left, from, to, base, ids);
+        final int index = base + size(node.left);
+        if (index >= from && index < to) {
+            ids.add(node.id);
+        }
+        collect(node.right, from, to, index + 1, ids);
+    }
+
+    private @Nullable Node<K> nodeAt(int index) {
+        Node<K> node = root;
+        while (node != null) {
+            final int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private @NotNull Node<K> insert(@Nullable Node<K> node, @NotNull Node<K> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private @NotNull Node<K> rotateRight(@NotNull Node<K> node) {
+        final Node<K> left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        return left;
+    }
+
+    private @NotNull Node<K> rotateLeft(@NotNull Node<K> node) {
+        final Node<K> right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        return right;
+    }
+
+    private @Nullable Node<K> delete(@Nullable Node<K> node, @NotNull Node<K> deleted) {
+        if (node == null) {
+            return null;
+        }
+        if (node == deleted) {
+            return merge(node.left, node.right);
+        }
+        if (compare(deleted, node) < 0) {
+            node.left = delete(node.left, deleted);
+        } else {
+            node.right = delete(node.right, deleted);
+        }
+        node.update();
+        return node;
+    }
+
+    private @Nullable Node<K> merge(@Nullable Node<K> left, @Nullable Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private int compare(@NotNull Node<K> a, @NotNull Node<K> b) {
+        if (a.score != b.score) {
+            return Integer.compare(b.score, a.score);
+        }
+        if (a.tieBreaker != b.tieBreaker) {
+            return Integer.compare(b.tieBreaker, a.tieBreaker);
+        }
+        return a.id.compareTo(b.id);
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node<K> {
+        private final K id;
+        private final int score;
+        private final int tieBreaker;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(@NotNull K id, int score, int tieBreaker) {
+            this.id = id;
+            this.score = score;
+            this.tieBreaker = tieBreaker;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
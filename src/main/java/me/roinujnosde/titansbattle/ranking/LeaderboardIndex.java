@@ -0,0 +1,85 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import me.roinujnosde.titansbattle.types.Counter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps a {@link Leaderboard} for each game and counter
+ * <p>
+ * Ties are sorted by victories, like the rankings always did.
+ *
+ * @param <K> the type of the ids
+ */
+public class LeaderboardIndex<K extends Comparable<K>> {
+
+    private final Set<Counter> counters;
+    private final Map<String, Map<Counter, Leaderboard<K>>> boards = new ConcurrentHashMap<>();
+
+    /**
+     * @param first the first counter to index
+     * @param rest  the other counters to index
+     */
+    public LeaderboardIndex(@NotNull Counter first, @NotNull Counter... rest) {
+        this.counters = EnumSet.of(first, rest);
+    }
+
+    /**
+     * Inserts or moves the id in every leaderboard of the game
+     *
+     * @param id    the id
+     * @param game  the game
+     * @param stats gets the value of each counter in the game
+     */
+    public void update(@NotNull K id, @NotNull String game, @NotNull ToIntFunction<Counter> stats) {
+        final Map<Counter, Leaderboard<K>> gameBoards = boards.computeIfAbsent(key(game), g -> create());
+        final int victories = stats.applyAsInt(Counter.VICTORIES);
+        gameBoards.forEach((counter, board) -> board.update(id, stats.applyAsInt(counter), victories));
+    }
+
+    /**
+     * Removes the id from every leaderboard
+     *
+     * @param id the id
+     */
+    public void remove(@NotNull K id) {
+        boards.values().forEach(gameBoards -> gameBoards.values().forEach(board -> board.remove(id)));
+    }
+
+    /**
+     * Removes every leaderboard
+     */
+    public void clear() {
+        boards.clear();
+    }
+
+    /**
+     * @param game    the game
+     * @param counter the counter
+     * @return the leaderboard, or null if the counter is not indexed or nobody has statistics in the game
+     */
+    public @Nullable Leaderboard<K> get(@NotNull String game, @NotNull Counter counter) {
+        final Map<Counter, Leaderboard<K>> gameBoards = boards.get(key(game));
+        return gameBoards != null ? gameBoards.get(counter) : null;
+    }
+
+    private @NotNull Map<Counter, Leaderboard<K>> create() {
+        final Map<Counter, Leaderboard<K>> gameBoards = new EnumMap<>(Counter.class);
+        for (final Counter counter : counters) {
+            gameBoards.put(counter, new Leaderboard<>());
+        }
+        return gameBoards;
+    }
+
+    private @NotNull String key(@NotNull String game) {
+        return game.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,76 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import me.roinujnosde.titansbattle.types.Counter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the pages of a ranking for a short time, so players flipping through them don't query the database again
+ * <p>
+ * Queries in progress are shared too, so many players asking for the same page cause a single query. Failed
+ * queries are not kept.
+ */
+public class RankingCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long ttlMillis;
+
+    public RankingCache(long ttlMillis) {
+        setTtlMillis(ttlMillis);
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    /**
+     * Gets a page, loading it if it is not cached or has expired
+     *
+     * @param game   the game
+     * @param order  the counter the page is sorted by
+     * @param offset how many entries were skipped
+     * @param limit  the maximum number of entries
+     * @param loader loads the page
+     * @return the page
+     */
+    public @NotNull CompletableFuture<List<RankingEntry>> get(@NotNull String game, @NotNull Counter order,
+                                                              int offset, int limit,
+                                                              @NotNull Supplier<CompletableFuture<List<RankingEntry>>> loader) {
+        final Key key = new Key(game.toLowerCase(Locale.ROOT), order, offset, limit);
+        final long now = System.currentTimeMillis();
+        final Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.page;
+        }
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        if (ttlMillis == 0) {
+            return loader.get();
+        }
+        final Entry entry = entries.computeIfAbsent(key, k -> new Entry(loader.get(), now + ttlMillis));
+        entry.page.whenComplete((page, ex) -> {
+            if (ex != null) {
+                entries.remove(key, entry);
+            }
+        });
+        return entry.page;
+    }
+
+    /**
+     * Removes every page, so the next requests see the latest saved data
+     */
+    public void invalidate() {
+        entries.clear();
+    }
+
+    private record Key(@NotNull String game, @NotNull Counter order, int offset, int limit) {
+    }
+
+    private record Entry(@NotNull CompletableFuture<List<RankingEntry>> page, long expiresAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The statistics of a player or group in a game, as shown in a ranking line
+ *
+ * @param name      the player's nickname or the group's name
+ * @param victories the victories
+ * @param kills     the kills
+ * @param deaths    the deaths
+ * @param defeats   the defeats, always 0 for players
+ */
+public record RankingEntry(@NotNull String name, int victories, int kills, int deaths, int defeats) {
+}
@@ -0,0 +1,249 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import me.roinujnosde.titansbattle.TitansBattle;
+import me.roinujnosde.titansbattle.managers.DatabaseManager;
+import me.roinujnosde.titansbattle.managers.GroupManager;
+import me.roinujnosde.titansbattle.types.Counter;
+import me.roinujnosde.titansbattle.types.Group;
+import me.roinujnosde.titansbattle.types.Warrior;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers ranking questions, like a player's position, from the leaderboards kept by the {@link DatabaseManager}
+ * <p>
+ * Every lookup is O(log n), plus the number of results, so it is cheap enough for placeholders. Positions are
+ * 1-based. The players rankings are not available with lazy loading, as not every warrior is in memory.
+ */
+public class RankingService {
+
+    // how many entries of each archived season ranking are kept for the placeholders
+    private static final int SEASON_TOP_SIZE = 100;
+    private static final int MAX_SEASON_TOPS = 256;
+    private static final long SEASON_TOP_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final TitansBattle plugin;
+    private final Map<SeasonKey, SeasonTop> seasonTops = new ConcurrentHashMap<>();
+
+    public RankingService(@NotNull TitansBattle plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @param uuid    the player's UUID
+     * @param game    the game
+     * @param counter the counter
+     * @return the player's position, or 0 if the player has no statistics in the game
+     */
+    public int getRank(@NotNull UUID uuid, @NotNull String game, @NotNull Counter counter) {
+        final Leaderboard<UUID> leaderboard = getDatabaseManager().getWarriorsLeaderboard(game, counter);
+        return leaderboard != null ? leaderboard.getRank(uuid) : 0;
+    }
+
+    /**
+     * @param position the position
+     * @param game     the game
+     * @param counter  the counter
+     * @return the player in the position or null if there is none
+     */
+    public @Nullable Warrior getWarrior(int position, @NotNull String game, @NotNull Counter counter) {
+        final Leaderboard<UUID> leaderboard = getDatabaseManager().getWarriorsLeaderboard(game, counter);
+        final UUID uuid = leaderboard != null ? leaderboard.get(position) : null;
+        return uuid != null ? getDatabaseManager().getWarrior(uuid) : null;
+    }
+
+    /**
+     * @param game    the game
+     * @param counter the counter
+     * @param limit   the maximum number of players
+     * @return the best players, from the first position
+     */
+    public @NotNull List<Warrior> getTop(@NotNull String game, @NotNull Counter counter, int limit) {
+        return toWarriors(getRange(getDatabaseManager().getWarriorsLeaderboard(game, counter), 0, limit));
+    }
+
+    /**
+     * Gets the players around a player, including them
+     *
+     * @param uuid    the player's UUID
+     * @param game    the game
+     * @param counter the counter
+     * @param radius  how many players to get above and below
+     * @return the players, from the best, or an empty list if the player has no statistics in the game
+     */
+    public @NotNull List<Warrior> getNeighbours(@NotNull UUID uuid, @NotNull String game, @NotNull Counter counter,
+                                                int radius) {
+        final Leaderboard<UUID> leaderboard = getDatabaseManager().getWarriorsLeaderboard(game, counter);
+        return toWarriors(getAround(leaderboard, uuid, radius));
+    }
+
+    /**
+     * @param id      the group's ID
+     * @param game    the game
+     * @param counter the counter
+     * @return the group's position, or 0 if the group has no statistics in the game
+     */
+    public int getGroupRank(@NotNull String id, @NotNull String game, @NotNull Counter counter) {
+        final Leaderboard<String> leaderboard = getDatabaseManager().getGroupsLeaderboard(game, counter);
+        return leaderboard != null ? leaderboard.getRank(id) : 0;
+    }
+
+    /**
+     * @param position the position
+     * @param game     the game
+     * @param counter  the counter
+     * @return the group in the position or null if there is none or it no longer exists
+     */
+    public @Nullable Group getGroup(int position, @NotNull String game, @NotNull Counter counter) {
+        final Leaderboard<String> leaderboard = getDatabaseManager().getGroupsLeaderboard(game, counter);
+        final String id = leaderboard != null ? leaderboard.get(position) : null;
+        final GroupManager groupManager = plugin.getGroupManager();
+        return id != null && groupManager != null ? groupManager.getGroupById(id) : null;
+    }
+
+    /**
+     * @param game    the game
+     * @param counter the counter
+     * @param limit   the maximum number of groups
+     * @return the best groups, from the first position, skipping the ones that no longer exist
+     */
+    public @NotNull List<Group> getTopGroups(@NotNull String game, @NotNull Counter counter, int limit) {
+        return toGroups(getRange(getDatabaseManager().getGroupsLeaderboard(game, counter), 0, limit));
+    }
+
+    /**
+     * Gets the groups around a group, including it
+     *
+     * @param id      the group's ID
+     * @param game    the game
+     * @param counter the counter
+     * @param radius  how many groups to get above and below
+     * @return the groups, from the best, or an empty list if the group has no statistics in the game
+     */
+    public @NotNull List<Group> getGroupNeighbours(@NotNull String id, @NotNull String game,
+                                                   @NotNull Counter counter, int radius) {
+        final Leaderboard<String> leaderboard = getDatabaseManager().getGroupsLeaderboard(game, counter);
+        return toGroups(getAround(leaderboard, id, radius));
+    }
+
+    /**
+     * Gets an entry of an archived season. Seasons don't change, so their tops are loaded in the background and kept
+     * for a while; until then, null is returned. Empty tops are not kept, as the query may have failed.
+     *
+     * @param season   the season
+     * @param groups   whether to use the groups ranking, instead of the players one
+     * @param position the position, up to 100
+     * @param game     the game
+     * @param counter  the counter
+     * @return the entry in the position, or null if there is none or it is still loading
+     */
+    public @Nullable RankingEntry getSeasonEntry(int season, boolean groups, int position, @NotNull String game,
+                                                 @NotNull Counter counter) {
+        if (position < 1 || position > SEASON_TOP_SIZE) {
+            return null;
+        }
+        final SeasonKey key = new SeasonKey(season, groups, game.toLowerCase(Locale.ROOT), counter);
+        final long now = System.currentTimeMillis();
+        SeasonTop cached = seasonTops.get(key);
+        if (cached == null || cached.expiresAt() <= now) {
+            removeSeasonTops(now);
+            final SeasonTop loading = new SeasonTop(getDatabaseManager().getSeasonRanking(season, groups, game,
+                    counter, 0, SEASON_TOP_SIZE), now + SEASON_TOP_TTL_MILLIS);
+            seasonTops.put(key, loading);
+            loading.top().whenComplete((top, ex) -> {
+                if (ex != null || top.isEmpty()) {
+                    seasonTops.remove(key, loading);
+                }
+            });
+            cached = loading;
+        }
+        final List<RankingEntry> top = cached.top().getNow(List.of());
+        return position <= top.size() ? top.get(position - 1) : null;
+    }
+
+    /**
+     * Removes the loaded season tops, so seasons archived later are found
+     */
+    public void invalidateSeasons() {
+        seasonTops.clear();
+    }
+
+    /**
+     * Removes the expired season tops and, if there are still too many, an arbitrary one, to make room for another
+     */
+    private void removeSeasonTops(long now) {
+        if (seasonTops.size() < MAX_SEASON_TOPS) {
+            return;
+        }
+        seasonTops.values().removeIf(t -> t.expiresAt() <= now);
+        final Iterator<SeasonKey> iterator = seasonTops.keySet().iterator();
+        while (seasonTops.size() >= MAX_SEASON_TOPS && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private <K extends Comparable<K>> @NotNull List<K> getAround(@Nullable Leaderboard<K> leaderboard, @NotNull K id,
+                                                                 int radius) {
+        if (leaderboard == null) {
+            return Collections.emptyList();
+        }
+        final int rank = leaderboard.getRank(id);
+        if (rank == 0) {
+            return Collections.emptyList();
+        }
+        final int offset = Math.max(0, rank - 1 - radius);
+        return leaderboard.getRange(offset, rank - offset + radius);
+    }
+
+    private <K extends Comparable<K>> @NotNull List<K> getRange(@Nullable Leaderboard<K> leaderboard, int offset,
+                                                                int limit) {
+        return leaderboard != null ? leaderboard.getRange(offset, limit) : Collections.emptyList();
+    }
+
+    private @NotNull List<Warrior> toWarriors(@NotNull List<UUID> uuids) {
+        final List<Warrior> warriors = new ArrayList<>(uuids.size());
+        for (final UUID uuid : uuids) {
+            warriors.add(getDatabaseManager().getWarrior(uuid));
+        }
+        return warriors;
+    }
+
+    private @NotNull List<Group> toGroups(@NotNull List<String> ids) {
+        final GroupManager groupManager = plugin.getGroupManager();
+        if (groupManager == null) {
+            return Collections.emptyList();
+        }
+        final List<Group> groups = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            final Group group = groupManager.getGroupById(id);
+            if (group != null) {
+                groups.add(group);
+            } else {
+                getDatabaseManager().removeFromGroupsLeaderboards(id);
+            }
+        }
+        return groups;
+    }
+
+    private @NotNull DatabaseManager getDatabaseManager() {
+        return plugin.getDatabaseManager();
+    }
+
+    private record SeasonKey(int season, boolean groups, @NotNull String game, @NotNull Counter counter) {
+    }
+
+    private record SeasonTop(@NotNull CompletableFuture<List<RankingEntry>> top, long expiresAt) {
+    }
+}
@@ -0,0 +1,136 @@
+package me.roinujnosde.titansbattle.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decides whether a command is allowed by the prefixes configured for it, in a time proportional to the command's
+ * length
+ * <p>
+ * The prefixes are compared ignoring case, like with startsWith, and also with their label resolved to the command's
+ * name, so "/tb exit" also matches "/TitansBattle exit" when tb is an alias of titansbattle. The typed label is
+ * always matched too, so "/tp" still covers "/tpa" when tp is an alias of teleport. When more than one prefix matches,
+ * the longest one decides, so a more specific prefix added later overrides a general one.
+ */
+public class CommandPolicy {
+
+    private final Node root = new Node();
+    private final UnaryOperator<String> resolver;
+
+    /**
+     * @param resolver gets the name of the command registered with a label, or the label itself if there is none
+     */
+    public CommandPolicy(@NotNull UnaryOperator<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Adds the prefixes, replacing the decision of the ones already added
+     *
+     * @param prefixes the prefixes, with or without the slash
+     * @param decision the decision for the commands starting with them
+     * @return this policy
+     */
+    public @NotNull CommandPolicy add(@Nullable Collection<String> prefixes, @NotNull Decision decision) {
+        if (prefixes == null) {
+            return this;
+        }
+        for (String prefix : prefixes) {
+            if (prefix == null || prefix.isBlank()) {
+                continue;
+            }
+            final String typed = normalize(prefix);
+            insert(typed, decision);
+            final String resolved = resolve(typed);
+            if (resolved != null) {
+                insert(resolved, decision);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param command the command, as typed by the player
+     * @return the decision of the longest prefix of the command, or null if no prefix matches
+     */
+    public @Nullable Decision match(@NotNull String command) {
+        final String typed = normalize(command);
+        final Match match = find(typed);
+        final String resolved = resolve(typed);
+        if (resolved != null) {
+            final Match resolvedMatch = find(resolved);
+            if (resolvedMatch.length() > match.length()) {
+                return resolvedMatch.decision();
+            }
+        }
+        return match.decision();
+    }
+
+    public boolean isAllowed(@NotNull String command, boolean allowedByDefault) {
+        final Decision decision = match(command);
+        return decision != null ? decision == Decision.ALLOW : allowedByDefault;
+    }
+
+    private void insert(@NotNull String prefix, @NotNull Decision decision) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+        }
+        node.decision = decision;
+    }
+
+    private @NotNull Match find(@NotNull String command) {
+        Match match = new Match(null, 0);
+        Node node = root;
+        for (int i = 0; i < command.length(); i++) {
+            node = node.children.get(command.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.decision != null) {
+                match = new Match(node.decision, i + 1);
+            }
+        }
+        return match;
+    }
+
+    /**
+     * @return the command without the slash, in lower case
+     */
+    private @NotNull String normalize(@NotNull String command) {
+        return (command.startsWith("/") ? command.substring(1) : command).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param command the normalized command
+     * @return the command with its label replaced by the command's name, or null if they are the same
+     */
+    private @Nullable String resolve(@NotNull String command) {
+        final int space = command.indexOf(' ');
+        final int labelEnd = space != -1 ? space : command.length();
+        if (labelEnd == 0) {
+            return null;
+        }
+        final String label = command.substring(0, labelEnd);
+        final String name = resolver.apply(label).toLowerCase(Locale.ROOT);
+        return name.equals(label) ? null : name + command.substring(labelEnd);
+    }
+
+    public enum Decision {
+        ALLOW, DENY
+    }
+
+    private record Match(@Nullable Decision decision, int length) {
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private @Nullable Decision decision;
+    }
+}
@@ -0,0 +1,19 @@
+package me.roinujnosde.titansbattle.types;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * The statistics counted per game for warriors and groups
+ */
+public enum Counter {
+    KILLS, DEATHS, VICTORIES, DEFEATS;
+
+    /**
+     * @return the name of the column that stores this counter
+     */
+    public @NotNull String getColumn() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,7 +3,9 @@ package me.roinujnosde.titansbattle.types;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static me.roinujnosde.titansbattle.utils.Helper.caseInsensitiveMap;
 
@@ -13,11 +15,11 @@ public class GroupData {
     private final Map<String, Integer> defeats;
     private final Map<String, Integer> kills;
     private final Map<String, Integer> deaths;
-    private boolean isModified;
+    private final StatChanges changes = new StatChanges();
+    private @Nullable StatListener statListener;
 
     public GroupData() {
         this(null, null, null, null);
-        isModified = true;
     }
 
     public GroupData(
@@ -52,38 +54,101 @@ public class GroupData {
     }
 
     public void increaseDefeats(@NotNull String game) {
-        defeats.compute(game, (g, i) -> i == null ? 1 : i + 1);
-        isModified = true;
+        setDefeats(game, getDefeats(game) + 1);
     }
 
     public void increaseVictories(@NotNull String game) {
-        victories.compute(game, (g, i) -> i == null ? 1 : i + 1);
-        isModified = true;
+        setVictories(game, getVictories(game) + 1);
     }
 
     public void setVictories(String game, int newVictories) {
+        final int delta = newVictories - getVictories(game);
+        changes.add(game, Counter.VICTORIES, delta);
         victories.put(game, newVictories);
+        statChanged(game, Counter.VICTORIES, delta);
     }
 
     public void setKills(String game, int newKills) {
+        final int delta = newKills - getKills(game);
+        changes.add(game, Counter.KILLS, delta);
         kills.put(game, newKills);
-        isModified = true;
+        statChanged(game, Counter.KILLS, delta);
     }
 
     public void setDeaths(String game, int newDeaths) {
+        final int delta = newDeaths - getDeaths(game);
+        changes.add(game, Counter.DEATHS, delta);
         deaths.put(game, newDeaths);
-        isModified = true;
+        statChanged(game, Counter.DEATHS, delta);
     }
 
     public void setDefeats(String game, int newDefeats) {
+        final int delta = newDefeats - getDefeats(game);
+        changes.add(game, Counter.DEFEATS, delta);
         defeats.put(game, newDefeats);
+        statChanged(game, Counter.DEFEATS, delta);
+    }
+
+    /**
+     * @param game    the game
+     * @param counter the counter
+     * @return the counter's value in the game
+     */
+    public int getStat(@NotNull String game, @NotNull Counter counter) {
+        return switch (counter) {
+            case KILLS -> getKills(game);
+            case DEATHS -> getDeaths(game);
+            case VICTORIES -> getVictories(game);
+            case DEFEATS -> getDefeats(game);
+        };
+    }
+
+    /**
+     * @return the games in which this group has statistics
+     */
+    public @NotNull Set<String> getGames() {
+        final Set<String> games = new HashSet<>(victories.keySet());
+        games.addAll(defeats.keySet());
+        games.addAll(kills.keySet());
+        games.addAll(deaths.keySet());
+        return games;
+    }
+
+    /**
+     * Sets the listener called whenever a statistic changes
+     *
+     * @param statListener the listener or null
+     */
+    public void setStatListener(@Nullable StatListener statListener) {
+        this.statListener = statListener;
+    }
+
+    private void statChanged(@NotNull String game, @NotNull Counter counter, int delta) {
+        if (statListener != null) {
+            statListener.onChange(game, counter, delta);
+        }
     }
 
     public boolean isModified() {
-        return isModified;
+        return !changes.isEmpty();
+    }
+
+    /**
+     * @return the counter changes since the last save, by game
+     * @see StatChanges#drain()
+     */
+    public @NotNull Map<String, Map<Counter, Integer>> drainChanges() {
+        return changes.drain();
     }
 
-    public void setModified(boolean isModified) {
-        this.isModified = isModified;
+    /**
+     * Sets every counter to 0, discarding the changes, as a new season starts
+     */
+    public void resetStats() {
+        victories.clear();
+        defeats.clear();
+        kills.clear();
+        deaths.clear();
+        changes.drain();
     }
 }
@@ -0,0 +1,263 @@
+package me.roinujnosde.titansbattle.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The warriors of a game, indexed by UUID
+ * <p>
+ * Besides the current participants, in the order they joined, it keeps the state of everyone who joined: their group
+ * and whether they died or are watching. Lookups are a single hash probe, so they are cheap enough for the damage and
+ * move listeners. The current participants of each group, and their number, are kept up to date as they join and
+ * leave.
+ */
+public class Participants {
+
+    private final Map<UUID, Participant> states = new HashMap<>();
+    private final Map<UUID, Warrior> current = new LinkedHashMap<>();
+    private final Map<UUID, Warrior> casualties = new LinkedHashMap<>();
+    private final Map<Group, Integer> groups = new LinkedHashMap<>();
+    private final Map<Group, Integer> groupsView = Collections.unmodifiableMap(groups);
+    private final Map<Group, Map<UUID, Warrior>> members = new HashMap<>();
+    private final List<Warrior> view = new View();
+    private final Collection<Warrior> casualtiesView = Collections.unmodifiableCollection(casualties.values());
+    private final Consumer<Warrior> listener;
+
+    /**
+     * @param listener called after a warrior is added or removed
+     */
+    public Participants(@NotNull Consumer<Warrior> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a participant, or adds them back if they had left
+     *
+     * @param warrior the warrior
+     * @param group   the warrior's group, kept after they leave
+     */
+    public void add(@NotNull Warrior warrior, @Nullable Group group) {
+        final UUID uuid = warrior.getUniqueId();
+        final Participant state = states.get(uuid);
+        states.put(uuid, state != null ? new Participant(warrior, group, true, state.casualty(), state.watching())
+                : new Participant(warrior, group, true, false, false));
+        if (current.put(uuid, warrior) == null) {
+            join(group, warrior);
+        } else if (!Objects.equals(state.group(), group)) {
+            leave(state.group(), warrior);
+            join(group, warrior);
+        }
+        listener.accept(warrior);
+    }
+
+    /**
+     * @param warrior the warrior
+     * @return true if the warrior was a participant
+     */
+    public boolean remove(@NotNull Warrior warrior) {
+        final UUID uuid = warrior.getUniqueId();
+        if (current.remove(uuid) == null) {
+            return false;
+        }
+        leave(warrior);
+        listener.accept(warrior);
+        return true;
+    }
+
+    /**
+     * @param filter which participants to remove
+     * @return true if any participant was removed
+     */
+    public boolean removeIf(@NotNull Predicate<Warrior> filter) {
+        final List<Warrior> removed = new ArrayList<>();
+        for (final Iterator<Warrior> iterator = current.values().iterator(); iterator.hasNext(); ) {
+            final Warrior warrior = iterator.next();
+            if (filter.test(warrior)) {
+                iterator.remove();
+                leave(warrior);
+                removed.add(warrior);
+            }
+        }
+        removed.forEach(listener);
+        return !removed.isEmpty();
+    }
+
+    private void leave(@NotNull Warrior warrior) {
+        final Participant state = states.computeIfPresent(warrior.getUniqueId(), (k, s) -> s.withAlive(false));
+        if (state != null) {
+            leave(state.group(), warrior);
+        }
+    }
+
+    private void join(@Nullable Group group, @NotNull Warrior warrior) {
+        groups.merge(group, 1, Integer::sum);
+        members.computeIfAbsent(group, g -> new LinkedHashMap<>()).put(warrior.getUniqueId(), warrior);
+    }
+
+    private void leave(@Nullable Group group, @NotNull Warrior warrior) {
+        groups.computeIfPresent(group, (g, count) -> count > 1 ? count - 1 : null);
+        members.computeIfPresent(group, (g, warriors) -> {
+            warriors.remove(warrior.getUniqueId());
+            return warriors.isEmpty() ? null : warriors;
+        });
+    }
+
+    public boolean contains(@NotNull Warrior warrior) {
+        return current.containsKey(warrior.getUniqueId());
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * @param warrior the warrior
+     * @return the group the warrior had when they joined, or null if they have none or never joined
+     */
+    public @Nullable Group getGroup(@NotNull Warrior warrior) {
+        final Participant state = states.get(warrior.getUniqueId());
+        return state != null ? state.group() : null;
+    }
+
+    /**
+     * @param warrior the warrior
+     * @return the warrior's state, or null if they never joined
+     */
+    public @Nullable Participant getState(@NotNull Warrior warrior) {
+        return states.get(warrior.getUniqueId());
+    }
+
+    /**
+     * Marks a participant as dead, they are still a participant until removed
+     *
+     * @param warrior the warrior
+     */
+    public void addCasualty(@NotNull Warrior warrior) {
+        final UUID uuid = warrior.getUniqueId();
+        if (states.computeIfPresent(uuid, (k, state) -> state.withCasualty()) != null) {
+            casualties.put(uuid, warrior);
+        }
+    }
+
+    public boolean isCasualty(@NotNull Warrior warrior) {
+        final Participant state = states.get(warrior.getUniqueId());
+        return state != null && state.casualty();
+    }
+
+    /**
+     * Marks a casualty as watching the rest of the game, so they are not teleported on respawn
+     *
+     * @param warrior the warrior
+     */
+    public void setWatching(@NotNull Warrior warrior) {
+        states.computeIfPresent(warrior.getUniqueId(), (k, state) -> state.withWatching());
+    }
+
+    public boolean isWatching(@NotNull Warrior warrior) {
+        final Participant state = states.get(warrior.getUniqueId());
+        return state != null && state.watching();
+    }
+
+    /**
+     * @return the current participants, in the order they joined, as a read-only view
+     */
+    public @Unmodifiable @NotNull List<Warrior> asList() {
+        return view;
+    }
+
+    /**
+     * @return the number of current participants of each group, in the order the groups joined, as a read-only view
+     */
+    public @Unmodifiable @NotNull Map<Group, Integer> getGroups() {
+        return groupsView;
+    }
+
+    /**
+     * @param group the group, or null for the participants without one
+     * @return the current participants of the group, in the order they joined, as a read-only collection
+     */
+    public @Unmodifiable @NotNull Collection<Warrior> getMembers(@Nullable Group group) {
+        final Map<UUID, Warrior> warriors = members.get(group);
+        return warriors != null ? Collections.unmodifiableCollection(warriors.values()) : Collections.emptyList();
+    }
+
+    /**
+     * @return the participants who died, in the order they died, as a read-only view
+     */
+    public @Unmodifiable @NotNull Collection<Warrior> getCasualties() {
+        return casualtiesView;
+    }
+
+    /**
+     * The state of a warrior in a game
+     *
+     * @param warrior  the warrior
+     * @param group    the group the warrior had when they joined
+     * @param alive    whether the warrior is a participant
+     * @param casualty whether the warrior died
+     * @param watching whether the warrior is watching the rest of the game
+     */
+    public record Participant(@NotNull Warrior warrior, @Nullable Group group, boolean alive, boolean casualty,
+                              boolean watching) {
+
+        private @NotNull Participant withAlive(boolean alive) {
+            return new Participant(warrior, group, alive, casualty, watching);
+        }
+
+        private @NotNull Participant withCasualty() {
+            return new Participant(warrior, group, alive, true, watching);
+        }
+
+        private @NotNull Participant withWatching() {
+            return new Participant(warrior, group, alive, casualty, true);
+        }
+    }
+
+    /**
+     * Only the positional access walks the participants, the callers mostly iterate or look them up
+     */
+    private class View extends AbstractList<Warrior> {
+
+        @Override
+        public Warrior get(int index) {
+            if (index < 0 || index >= current.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.size());
+            }
+            final Iterator<Warrior> iterator = current.values().iterator();
+            for (int i = 0; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public int size() {
+            return current.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Warrior warrior && current.containsKey(warrior.getUniqueId());
+        }
+
+        @Override
+        public @NotNull Iterator<Warrior> iterator() {
+            return Collections.unmodifiableCollection(current.values()).iterator();
+        }
+    }
+}
@@ -14,6 +14,10 @@ public class SimpleClansGroup extends Group {
         this.clan = clan;
     }
 
+    public @NotNull Clan getClan() {
+        return clan;
+    }
+
     @Override
     public @NotNull String getName() {
         return clan.getName();
@@ -0,0 +1,46 @@
+package me.roinujnosde.titansbattle.types;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static me.roinujnosde.titansbattle.utils.Helper.caseInsensitiveMap;
+
+/**
+ * Accumulates how much each counter changed, per game, since the last time it was saved
+ */
+public class StatChanges {
+
+    private Map<String, Map<Counter, Integer>> changes = caseInsensitiveMap();
+
+    public void add(@NotNull String game, @NotNull Counter counter, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        final Map<Counter, Integer> gameChanges = changes.computeIfAbsent(game, g -> new EnumMap<>(Counter.class));
+        gameChanges.merge(counter, delta, (a, b) -> a + b == 0 ? null : a + b);
+        if (gameChanges.isEmpty()) {
+            changes.remove(game);
+        }
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Takes the accumulated changes, leaving this empty
+     *
+     * @return the changes by game
+     */
+    public @NotNull Map<String, Map<Counter, Integer>> drain() {
+        if (changes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Map<Counter, Integer>> drained = changes;
+        changes = caseInsensitiveMap();
+        return drained;
+    }
+}
@@ -0,0 +1,19 @@
+package me.roinujnosde.titansbattle.types;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens to the statistics of a {@link Warrior} or {@link GroupData}
+ */
+@FunctionalInterface
+public interface StatListener {
+
+    /**
+     * Called after a counter changes
+     *
+     * @param game    the game
+     * @param counter the counter
+     * @param delta   how much it changed, or 0 if statistics were loaded from the database
+     */
+    void onChange(@NotNull String game, @NotNull Counter counter, int delta);
+}
@@ -30,7 +30,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -46,12 +48,12 @@ public class Warrior {
     private final Map<String, Integer> kills;
     private final Map<String, Integer> deaths;
     private final Map<String, Integer> victories;
+    private final StatChanges changes = new StatChanges();
     private @Nullable WeakReference<Player> playerReference;
-    private boolean isModified;
+    private @Nullable StatListener statListener;
 
     public Warrior(@NotNull OfflinePlayer offlinePlayer, @NotNull Supplier<GroupManager> groupManager) {
         this(offlinePlayer, groupManager, null, null, null);
-        isModified = true;
     }
 
     public Warrior(@NotNull OfflinePlayer offlinePlayer,
@@ -108,8 +110,9 @@ public class Warrior {
 
     @Nullable
     public Player toOnlinePlayer() {
-        if (playerReference != null && playerReference.get() != null) {
-            return playerReference.get();
+        final Player player = playerReference != null ? playerReference.get() : null;
+        if (player != null && player.isOnline()) {
+            return player;
         }
         return offlinePlayer.getPlayer();
     }
@@ -184,34 +187,117 @@ public class Warrior {
     }
 
     public void setKills(@NotNull String game, int newKills) {
+        final int delta = newKills - getKills(game);
+        changes.add(game, Counter.KILLS, delta);
         kills.put(game, newKills);
-        isModified = true;
+        statChanged(game, Counter.KILLS, delta);
     }
 
     public void setDeaths(@NotNull String game, int newDeaths) {
+        final int delta = newDeaths - getDeaths(game);
+        changes.add(game, Counter.DEATHS, delta);
         deaths.put(game, newDeaths);
-        isModified = true;
+        statChanged(game, Counter.DEATHS, delta);
     }
 
     public void setVictories(@NotNull String game, int newVictories) {
+        final int delta = newVictories - getVictories(game);
+        changes.add(game, Counter.VICTORIES, delta);
         victories.put(game, newVictories);
-        isModified = true;
+        statChanged(game, Counter.VICTORIES, delta);
     }
 
     public void increaseVictories(@NotNull String game) {
         setVictories(game, getVictories(game) + 1);
-        isModified = true;
+    }
+
+    /**
+     * @param game    the game
+     * @param counter the counter
+     * @return the counter's value in the game, defeats are always 0
+     */
+    public int getStat(@NotNull String game, @NotNull Counter counter) {
+        return switch (counter) {
+            case KILLS -> getKills(game);
+            case DEATHS -> getDeaths(game);
+            case VICTORIES -> getVictories(game);
+            case DEFEATS -> 0;
+        };
+    }
+
+    /**
+     * @return the games in which this warrior has statistics
+     */
+    public @NotNull Set<String> getGames() {
+        final Set<String> games = new HashSet<>(kills.keySet());
+        games.addAll(deaths.keySet());
+        games.addAll(victories.keySet());
+        return games;
+    }
+
+    /**
+     * Sets the listener called whenever a statistic changes
+     *
+     * @param statListener the listener or null
+     */
+    public void setStatListener(@Nullable StatListener statListener) {
+        this.statListener = statListener;
+    }
+
+    private void statChanged(@NotNull String game, @NotNull Counter counter, int delta) {
+        if (statListener != null) {
+            statListener.onChange(game, counter, delta);
+        }
     }
 
     private <T> int getSum(@NotNull Map<T, Integer> map) {
         return map.values().stream().mapToInt(i -> i).sum();
     }
 
+    /**
+     * Adds statistics loaded from the database to the current ones, without counting them as changes
+     *
+     * @param kills     the stored kills by game
+     * @param deaths    the stored deaths by game
+     * @param victories the stored victories by game
+     */
+    public void addStoredStats(@Nullable Map<String, Integer> kills,
+                               @Nullable Map<String, Integer> deaths,
+                               @Nullable Map<String, Integer> victories) {
+        addStoredStats(this.kills, kills, Counter.KILLS);
+        addStoredStats(this.deaths, deaths, Counter.DEATHS);
+        addStoredStats(this.victories, victories, Counter.VICTORIES);
+    }
+
+    private void addStoredStats(@NotNull Map<String, Integer> current, @Nullable Map<String, Integer> stored,
+                                @NotNull Counter counter) {
+        if (stored != null) {
+            stored.forEach((game, value) -> {
+                current.merge(game, value, Integer::sum);
+                statChanged(game, counter, 0);
+            });
+        }
+    }
+
     public boolean isModified() {
-        return isModified;
+        return !changes.isEmpty();
+    }
+
+    /**
+     * @return the counter changes since the last save, by game
+     * @see StatChanges#drain()
+     */
+    public @NotNull Map<String, Map<Counter, Integer>> drainChanges() {
+        return changes.drain();
     }
 
-    public void setModified(boolean isModified) {
-        this.isModified = isModified;
+    /**
+     * Sets every counter to 0, discarding the changes, as a new season starts
+     */
+    public void resetStats() {
+        kills.clear();
+        deaths.clear();
+        victories.clear();
+        changes.drain();
     }
 }
@@ -30,6 +30,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static me.roinujnosde.titansbattle.utils.Helper.caseInsensitiveMap;
 
@@ -43,6 +44,7 @@ public class Winners implements Comparable<Winners> {
     private final Map<String, List<UUID>> playerWinners;
     private final Map<String, String> winnerGroup;
     private boolean isModified;
+    private @Nullable Consumer<String> changeListener;
 
     public Winners(@NotNull Date date) {
         this(date, null, null, null);
@@ -77,17 +79,33 @@ public class Winners implements Comparable<Winners> {
 
     public void setKiller(String game, UUID uuid) {
         killer.put(game, uuid);
-        isModified = true;
+        changed(game);
     }
 
     public void setWinnerGroup(String game, String group) {
         winnerGroup.put(game, group);
-        isModified = true;
+        changed(game);
     }
 
     public void setWinners(String game, List<UUID> winners) {
         playerWinners.put(game, winners);
+        changed(game);
+    }
+
+    /**
+     * Sets the listener called with the game's name whenever its winners change
+     *
+     * @param changeListener the listener or null
+     */
+    public void setChangeListener(@Nullable Consumer<String> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void changed(String game) {
         isModified = true;
+        if (changeListener != null) {
+            changeListener.accept(game);
+        }
     }
 
     public boolean isEmpty(String game) {
@@ -0,0 +1,169 @@
+package me.roinujnosde.titansbattle.utils;
+
+import org.bukkit.ChatColor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message pattern parsed once, with its color codes (&) already translated
+ * <p>
+ * The output is the same as translating the color codes of {@link MessageFormat#format(String, Object...)}, but the
+ * message is built in a single pass over the literal parts and the arguments. Only the simple arguments, like {0}, are
+ * compiled; patterns with typed arguments, like {0,number}, or invalid ones are formatted by {@link MessageFormat}.
+ */
+public final class MessageTemplate {
+
+    private static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final int MAX_ARGUMENT_INDEX = 10000;
+
+    private final String[] literals;
+    private final int[] indexes;
+    private final @Nullable String pattern;
+    private final int length;
+
+    private MessageTemplate(@NotNull String[] literals, @NotNull int[] indexes, @Nullable String pattern) {
+        this.literals = literals;
+        this.indexes = indexes;
+        this.pattern = pattern;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.length = length;
+    }
+
+    /**
+     * @param pattern the pattern, in the {@link MessageFormat} syntax and with & color codes
+     * @return the compiled template
+     */
+    public static @NotNull MessageTemplate compile(@NotNull String pattern) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> indexes = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(pattern.length());
+        boolean inQuote = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char ch = pattern.charAt(i);
+            if (ch == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append(ch);
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (ch == '{' && !inQuote) {
+                final int close = pattern.indexOf('}', i + 1);
+                final int index = close != -1 ? parseIndex(pattern.substring(i + 1, close)) : -1;
+                if (index == -1) {
+                    return new MessageTemplate(new String[0], new int[0], pattern);
+                }
+                literals.add(translate(literal.toString()));
+                indexes.add(index);
+                literal = new StringBuilder();
+                i = close;
+            } else {
+                literal.append(ch);
+            }
+        }
+        literals.add(translate(literal.toString()));
+        return new MessageTemplate(literals.toArray(new String[0]),
+                indexes.stream().mapToInt(Integer::intValue).toArray(), null);
+    }
+
+    /**
+     * @param args the arguments
+     * @return the message, with the color codes of the arguments also translated
+     */
+    public @NotNull String format(@Nullable Object... args) {
+        if (pattern != null) {
+            return translate(MessageFormat.format(pattern, args));
+        }
+        return build(args, true);
+    }
+
+    /**
+     * Formats the message without translating the color codes of the arguments, for arguments typed by players, so
+     * they can't color the message
+     *
+     * @param args the arguments
+     * @return the message, with only the color codes of the pattern translated
+     */
+    public @NotNull String formatUntranslated(@Nullable Object... args) {
+        if (pattern != null) {
+            return MessageFormat.format(translate(pattern), args);
+        }
+        return build(args, false);
+    }
+
+    private @NotNull String build(@Nullable Object[] args, boolean translateArgs) {
+        if (indexes.length == 0) {
+            return literals[0];
+        }
+        final StringBuilder builder = new StringBuilder(length + indexes.length * 16);
+        builder.append(literals[0]);
+        for (int i = 0; i < indexes.length; i++) {
+            final int index = indexes[i];
+            if (args == null || index >= args.length) {
+                append(builder, "{" + index + "}", translateArgs);
+            } else {
+                final String arg = toString(args[index]);
+                append(builder, translateArgs ? translate(arg) : arg, translateArgs);
+            }
+            append(builder, literals[i + 1], translateArgs);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends a part of the message, translating a color code split between it and the previous part if asked to
+     */
+    private static void append(@NotNull StringBuilder builder, @NotNull String part, boolean translateSplit) {
+        final int start = builder.length();
+        builder.append(part);
+        if (translateSplit && start > 0 && start < builder.length() && builder.charAt(start - 1) == '&'
+                && COLOR_CODES.indexOf(builder.charAt(start)) != -1) {
+            builder.setCharAt(start - 1, ChatColor.COLOR_CHAR);
+            builder.setCharAt(start, Character.toLowerCase(builder.charAt(start)));
+        }
+    }
+
+    private static @NotNull String toString(@Nullable Object arg) {
+        final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (arg instanceof Number) {
+            return NumberFormat.getInstance(locale).format(arg);
+        }
+        if (arg instanceof Date) {
+            return DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale).format(arg);
+        }
+        final String string = String.valueOf(arg);
+        return string != null ? string : "null";
+    }
+
+    @SuppressWarnings("deprecation")
+    private static @NotNull String translate(@NotNull String text) {
+        return text.indexOf('&') != -1 ? ChatColor.translateAlternateColorCodes('&', text) : text;
+    }
+
+    /**
+     * @return the argument index, or -1 if the argument is not a simple one
+     */
+    private static int parseIndex(@NotNull String argument) {
+        if (argument.isEmpty() || argument.length() > 5) {
+            return -1;
+        }
+        for (int i = 0; i < argument.length(); i++) {
+            if (argument.charAt(i) < '0' || argument.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        final int index = Integer.parseInt(argument);
+        return index < MAX_ARGUMENT_INDEX ? index : -1;
+    }
+}
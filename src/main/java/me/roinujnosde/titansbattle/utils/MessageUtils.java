@@ -4,6 +4,7 @@ import me.roinujnosde.titansbattle.TitansBattle;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
+import org.bukkit.Server;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -34,8 +35,9 @@ public final class MessageUtils {
     }
 
     public static void broadcastKey(@NotNull String messageKey, @Nullable FileConfiguration config, Object... args) {
-        String message = TitansBattle.getInstance().getLang(messageKey, config);
-        broadcast(message, config, args);
+        final TitansBattle plugin = TitansBattle.getInstance();
+        plugin.getBroadcastManager().sendMessage(plugin.getLang(messageKey, config, args),
+                Server.BROADCAST_CHANNEL_USERS);
     }
 
     public static void broadcast(@Nullable String message, @Nullable FileConfiguration config, Object... args) {
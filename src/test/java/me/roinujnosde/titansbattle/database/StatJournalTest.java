@@ -0,0 +1,184 @@
+package me.roinujnosde.titansbattle.database;
+
+import me.roinujnosde.titansbattle.types.Counter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatJournalTest {
+
+    private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final Logger LOGGER = Logger.getLogger(StatJournalTest.class.getName());
+
+    @TempDir
+    File directory;
+
+    @Test
+    void recoversTheRecordsInOrder() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendWarrior(PLAYER, "Steve", "FFA", Counter.KILLS, 1);
+        journal.appendGroup("tnt", "Groups", Counter.VICTORIES, 2);
+        journal.appendWinners(LocalDate.of(2024, 5, 1), "FFA", PLAYER, null, List.of(PLAYER));
+        assertEquals(1, journal.rotate());
+        journal.appendGroup("tnt", "Groups", Counter.DEATHS, -1);
+        journal.close();
+
+        final Recorder recorder = new Recorder();
+        assertEquals(2, new StatJournal(directory, LOGGER).recover(0, recorder));
+        assertEquals(List.of(
+                "warrior " + PLAYER + " Steve FFA KILLS 1",
+                "group tnt Groups VICTORIES 2",
+                "winners 2024-05-01 FFA " + PLAYER + " null [" + PLAYER + "]",
+                "group tnt Groups DEATHS -1"), recorder.records);
+    }
+
+    @Test
+    void skipsTheSegmentsUpToTheCheckpoint() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendGroup("a", "FFA", Counter.KILLS, 1);
+        journal.rotate();
+        journal.appendGroup("b", "FFA", Counter.KILLS, 1);
+        journal.close();
+
+        final Recorder recorder = new Recorder();
+        assertEquals(2, new StatJournal(directory, LOGGER).recover(1, recorder));
+        assertEquals(List.of("group b FFA KILLS 1"), recorder.records);
+    }
+
+    @Test
+    void rotatingWithoutRecordsReturnsZero() throws IOException {
+        final StatJournal journal = open(0);
+        assertEquals(0, journal.rotate());
+        journal.close();
+    }
+
+    @Test
+    void stopsAtATornRecordAndReadsTheNextSegment() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendGroup("a", "FFA", Counter.KILLS, 1);
+        journal.appendGroup("b", "FFA", Counter.KILLS, 2);
+        journal.rotate();
+        journal.appendGroup("c", "FFA", Counter.KILLS, 3);
+        journal.close();
+
+        // the server stopped while the second record was being written
+        truncate(segment(1), 3);
+
+        final Recorder recorder = new Recorder();
+        assertEquals(2, new StatJournal(directory, LOGGER).recover(0, recorder));
+        assertEquals(List.of("group a FFA KILLS 1", "group c FFA KILLS 3"), recorder.records);
+    }
+
+    @Test
+    void stopsAtATornLength() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendGroup("a", "FFA", Counter.KILLS, 1);
+        journal.close();
+
+        try (final RandomAccessFile file = new RandomAccessFile(segment(1), "rw")) {
+            file.seek(file.length());
+            file.write(new byte[]{0, 0});
+        }
+
+        final Recorder recorder = new Recorder();
+        new StatJournal(directory, LOGGER).recover(0, recorder);
+        assertEquals(List.of("group a FFA KILLS 1"), recorder.records);
+    }
+
+    @Test
+    void stopsAtARecordFailingTheCrc() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendGroup("a", "FFA", Counter.KILLS, 1);
+        journal.appendGroup("b", "FFA", Counter.KILLS, 2);
+        journal.appendGroup("c", "FFA", Counter.KILLS, 3);
+        journal.rotate();
+        journal.appendGroup("d", "FFA", Counter.KILLS, 4);
+        journal.close();
+
+        // changes the delta of the second record, the records after it can't be trusted either
+        final File file = segment(1);
+        final long recordSize = file.length() / 3;
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(2 * recordSize - 1);
+            final int last = raf.read();
+            raf.seek(2 * recordSize - 1);
+            raf.write(last ^ 0xFF);
+        }
+
+        final Recorder recorder = new Recorder();
+        assertEquals(2, new StatJournal(directory, LOGGER).recover(0, recorder));
+        assertEquals(List.of("group a FFA KILLS 1", "group d FFA KILLS 4"), recorder.records);
+    }
+
+    @Test
+    void openingDeletesTheRecoveredSegments() throws IOException {
+        final StatJournal journal = open(0);
+        journal.appendGroup("a", "FFA", Counter.KILLS, 1);
+        journal.rotate();
+        journal.close();
+        assertTrue(segment(1).exists());
+
+        final StatJournal reopened = new StatJournal(directory, LOGGER);
+        final long last = reopened.recover(0, new Recorder());
+        assertEquals(2, last);
+        reopened.open(last, 60_000);
+        reopened.close();
+        assertFalse(segment(1).exists());
+        assertFalse(segment(2).exists());
+        assertTrue(segment(3).exists());
+    }
+
+    private @NotNull StatJournal open(long last) throws IOException {
+        final StatJournal journal = new StatJournal(directory, LOGGER);
+        journal.open(last, 60_000);
+        return journal;
+    }
+
+    private @NotNull File segment(long segment) {
+        return new File(directory, String.format("%019d.journal", segment));
+    }
+
+    private static void truncate(@NotNull File file, int bytes) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - bytes);
+        }
+    }
+
+    private static class Recorder implements StatJournal.Handler {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void warrior(@NotNull UUID uuid, @NotNull String name, @NotNull String game,
+                            @NotNull Counter counter, int delta) {
+            records.add(String.join(" ", "warrior", uuid.toString(), name, game, counter.name(),
+                    String.valueOf(delta)));
+        }
+
+        @Override
+        public void group(@NotNull String id, @NotNull String game, @NotNull Counter counter, int delta) {
+            records.add(String.join(" ", "group", id, game, counter.name(), String.valueOf(delta)));
+        }
+
+        @Override
+        public void winners(@NotNull LocalDate date, @NotNull String game, @Nullable UUID killer,
+                            @Nullable String group, @NotNull List<UUID> players) {
+            records.add(String.join(" ", "winners", date.toString(), game, String.valueOf(killer),
+                    String.valueOf(group), players.toString()));
+        }
+    }
+}
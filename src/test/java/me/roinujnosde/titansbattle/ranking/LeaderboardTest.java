@@ -0,0 +1,107 @@
+package me.roinujnosde.titansbattle.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    @Test
+    void sortsByScoreThenTieBreakerThenId() {
+        final Leaderboard<String> leaderboard = new Leaderboard<>();
+        leaderboard.update("c", 10, 1);
+        leaderboard.update("a", 10, 1);
+        leaderboard.update("b", 10, 5);
+        leaderboard.update("d", 20, 0);
+        leaderboard.update("e", 5, 9);
+
+        assertEquals(List.of("d", "b", "a", "c", "e"), leaderboard.getRange(0, 10));
+        assertEquals(1, leaderboard.getRank("d"));
+        assertEquals(2, leaderboard.getRank("b"));
+        assertEquals(3, leaderboard.getRank("a"));
+        assertEquals(4, leaderboard.getRank("c"));
+        assertEquals(5, leaderboard.getRank("e"));
+    }
+
+    @Test
+    void updateMovesTheId() {
+        final Leaderboard<String> leaderboard = new Leaderboard<>();
+        leaderboard.update("a", 1, 0);
+        leaderboard.update("b", 2, 0);
+        leaderboard.update("a", 3, 0);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(List.of("a", "b"), leaderboard.getRange(0, 10));
+        assertEquals(3, leaderboard.getScore("a"));
+    }
+
+    @Test
+    void removeShiftsTheRanks() {
+        final Leaderboard<String> leaderboard = new Leaderboard<>();
+        leaderboard.update("a", 3, 0);
+        leaderboard.update("b", 2, 0);
+        leaderboard.update("c", 1, 0);
+        leaderboard.remove("a");
+        leaderboard.remove("missing");
+
+        assertEquals(0, leaderboard.getRank("a"));
+        assertEquals(0, leaderboard.getScore("a"));
+        assertEquals(1, leaderboard.getRank("b"));
+        assertEquals("c", leaderboard.get(2));
+        assertNull(leaderboard.get(3));
+    }
+
+    @Test
+    void rangeOutOfBounds() {
+        final Leaderboard<String> leaderboard = new Leaderboard<>();
+        leaderboard.update("a", 1, 0);
+
+        assertTrue(leaderboard.getRange(1, 10).isEmpty());
+        assertTrue(leaderboard.getRange(0, 0).isEmpty());
+        assertTrue(leaderboard.getRange(-1, 10).isEmpty());
+        assertNull(leaderboard.get(0));
+    }
+
+    @Test
+    void matchesASortedList() {
+        final Random random = new Random(42);
+        final Leaderboard<Integer> leaderboard = new Leaderboard<>();
+        final int[][] scores = new int[500][];
+        for (int i = 0; i < 5000; i++) {
+            final int id = random.nextInt(scores.length);
+            if (random.nextInt(10) == 0) {
+                leaderboard.remove(id);
+                scores[id] = null;
+                continue;
+            }
+            // few distinct values, so there are many ties
+            scores[id] = new int[]{random.nextInt(20), random.nextInt(3)};
+            leaderboard.update(id, scores[id][0], scores[id][1]);
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < scores.length; id++) {
+            if (scores[id] != null) {
+                expected.add(id);
+            }
+        }
+        expected.sort(Comparator.<Integer>comparingInt(id -> -scores[id][0])
+                .thenComparingInt(id -> -scores[id][1])
+                .thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(expected.size(), leaderboard.size());
+        assertEquals(expected, leaderboard.getRange(0, expected.size()));
+        assertEquals(expected.subList(40, 50), leaderboard.getRange(40, 10));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, leaderboard.getRank(expected.get(i)));
+            assertEquals(expected.get(i), leaderboard.get(i + 1));
+        }
+    }
+}
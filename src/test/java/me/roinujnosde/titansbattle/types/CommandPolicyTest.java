@@ -0,0 +1,120 @@
+package me.roinujnosde.titansbattle.types;
+
+import me.roinujnosde.titansbattle.types.CommandPolicy.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandPolicyTest {
+
+    private static final Map<String, String> ALIASES = Map.of("tb", "titansbattle", "msg", "tell", "tp", "teleport");
+    private static final UnaryOperator<String> RESOLVER = label -> ALIASES.getOrDefault(label, label);
+
+    @Test
+    void allowsLikeStartsWith() {
+        final List<String> prefixes = List.of("/tb", "/spawn", "/msg hi", "/home ");
+        final List<String> commands = List.of("/tb", "/tb exit", "/tbx", "/t", "/spawn", "/spawnpoint", "/spaw",
+                "/msg hi there", "/msg hello", "/home", "/home base", "/homes", "/warp", "/", "");
+        assertLikeStartsWith(UnaryOperator.identity(), prefixes, commands, Decision.ALLOW);
+        assertLikeStartsWith(RESOLVER, prefixes, commands, Decision.ALLOW);
+    }
+
+    @Test
+    void blocksLikeStartsWith() {
+        final List<String> prefixes = List.of("/tp", "/t");
+        final List<String> commands = List.of("/tp", "/tpa", "/tphere", "/tpaccept Steve", "/tb exit", "/teleport",
+                "/warp", "/spawn");
+        assertLikeStartsWith(UnaryOperator.identity(), prefixes, commands, Decision.DENY);
+        assertLikeStartsWith(RESOLVER, prefixes, commands, Decision.DENY);
+        assertLikeStartsWith(RESOLVER, List.of("/tp"), List.of("/tpa", "/tphere", "/tpaccept Steve", "/tb exit"),
+                Decision.DENY);
+    }
+
+    @Test
+    void theLongestPrefixDecides() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER)
+                .add(List.of("/tb exit"), Decision.ALLOW)
+                .add(List.of("/tb"), Decision.DENY);
+
+        assertTrue(policy.isAllowed("/tb exit", false));
+        assertTrue(policy.isAllowed("/tb exitnow", false));
+        assertFalse(policy.isAllowed("/tb join", true));
+        assertFalse(policy.isAllowed("/tb", true));
+    }
+
+    @Test
+    void theLastDecisionForAPrefixIsKept() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER)
+                .add(List.of("/spawn"), Decision.DENY)
+                .add(List.of("/spawn"), Decision.ALLOW);
+
+        assertEquals(Decision.ALLOW, policy.match("/spawn"));
+    }
+
+    @Test
+    void ignoresCase() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER).add(List.of("/Spawn Home"), Decision.DENY);
+
+        assertEquals(Decision.DENY, policy.match("/SPAWN HOME"));
+        assertEquals(Decision.DENY, policy.match("/spawn home"));
+        assertNull(policy.match("/spawn"));
+    }
+
+    @Test
+    void resolvesAliases() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER)
+                .add(List.of("/tb exit"), Decision.ALLOW)
+                .add(List.of("/tell"), Decision.DENY);
+
+        assertEquals(Decision.ALLOW, policy.match("/titansbattle exit"));
+        assertEquals(Decision.ALLOW, policy.match("/TB exit"));
+        assertEquals(Decision.DENY, policy.match("/msg Steve hi"));
+        assertEquals(Decision.DENY, policy.match("/tell Steve hi"));
+        assertNull(policy.match("/titansbattle join"));
+    }
+
+    @Test
+    void theSlashIsOptional() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER).add(List.of("spawn"), Decision.DENY);
+
+        assertEquals(Decision.DENY, policy.match("/spawn"));
+        assertEquals(Decision.DENY, policy.match("spawn"));
+    }
+
+    @Test
+    void aliasesAddMatches() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER).add(List.of("/tp"), Decision.DENY);
+
+        assertEquals(Decision.DENY, policy.match("/teleport Steve"));
+        assertEquals(Decision.DENY, policy.match("/tpa"));
+        assertNull(policy.match("/tell Steve"));
+    }
+
+    @Test
+    void withoutAMatchTheDefaultIsUsed() {
+        final CommandPolicy policy = new CommandPolicy(RESOLVER)
+                .add(null, Decision.DENY)
+                .add(Arrays.asList("", " ", null), Decision.DENY);
+
+        assertNull(policy.match("/spawn"));
+        assertTrue(policy.isAllowed("/spawn", true));
+        assertFalse(policy.isAllowed("/spawn", false));
+    }
+
+    private static void assertLikeStartsWith(UnaryOperator<String> resolver, List<String> prefixes,
+                                             List<String> commands, Decision decision) {
+        final CommandPolicy policy = new CommandPolicy(resolver).add(prefixes, decision);
+        for (final String command : commands) {
+            final boolean matches = prefixes.stream().anyMatch(command::startsWith);
+            assertEquals(matches ? decision : null, policy.match(command), command);
+        }
+    }
+}
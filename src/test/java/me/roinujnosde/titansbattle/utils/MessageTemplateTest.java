@@ -0,0 +1,71 @@
+package me.roinujnosde.titansbattle.utils;
+
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageTemplateTest {
+
+    @Test
+    void simpleArguments() {
+        assertFormatsLikeMessageFormat("&aHello {0}, you have {1} kills", "Steve", 1234);
+        assertFormatsLikeMessageFormat("{0}{0}{1}", "a", "b");
+        assertFormatsLikeMessageFormat("No arguments &lat all");
+        assertFormatsLikeMessageFormat("{0} won at {1}", "Steve", new Date(0));
+        assertFormatsLikeMessageFormat("{0}", 12.5);
+    }
+
+    @Test
+    void quotes() {
+        assertFormatsLikeMessageFormat("It''s {0}''s turn", "Steve");
+        assertFormatsLikeMessageFormat("'{0}' is not {0}", "replaced");
+        assertFormatsLikeMessageFormat("'{'0'}' and '''{0}'''", "x");
+        assertFormatsLikeMessageFormat("an unclosed 'quote {0}", "x");
+    }
+
+    @Test
+    void typedArguments() {
+        assertFormatsLikeMessageFormat("{0,number} kills", 1234567);
+        assertFormatsLikeMessageFormat("{0,number,#.##} and {1}", 1.23456, "x");
+        assertFormatsLikeMessageFormat("{1,choice,0#none|1#one|1<many} and {0}", "x", 2);
+    }
+
+    @Test
+    void missingArguments() {
+        assertFormatsLikeMessageFormat("{0} and {1}", "only one");
+        assertFormatsLikeMessageFormat("{0} and {1}");
+        assertFormatsLikeMessageFormat("{0} and {1}", (Object[]) null);
+        assertFormatsLikeMessageFormat("{0} is null", (Object) null);
+    }
+
+    @Test
+    void colorCodes() {
+        assertFormatsLikeMessageFormat("&{0}colored", "a");
+        assertFormatsLikeMessageFormat("{0}a split code", "&");
+        assertFormatsLikeMessageFormat("{0} and &{1}", "&cred", "lbold");
+        assertFormatsLikeMessageFormat("&z is not a code {0}&", "&");
+    }
+
+    @Test
+    void untranslatedArguments() {
+        assertUntranslatedLikeMessageFormat("&cCommand {0} is blocked", "/tp &aSteve");
+        assertUntranslatedLikeMessageFormat("&{0} stays as typed", "a");
+        assertUntranslatedLikeMessageFormat("{0}a stays as typed", "&");
+        assertUntranslatedLikeMessageFormat("It''s {0,number} and {1}", 5, "&l");
+        assertUntranslatedLikeMessageFormat("{0} and {1}", "&eonly one");
+    }
+
+    private static void assertUntranslatedLikeMessageFormat(String pattern, Object... args) {
+        final String expected = MessageFormat.format(ChatColor.translateAlternateColorCodes('&', pattern), args);
+        assertEquals(expected, MessageTemplate.compile(pattern).formatUntranslated(args), pattern);
+    }
+
+    private static void assertFormatsLikeMessageFormat(String pattern, Object... args) {
+        final String expected = ChatColor.translateAlternateColorCodes('&', MessageFormat.format(pattern, args));
+        assertEquals(expected, MessageTemplate.compile(pattern).format(args), pattern);
+    }
+}